@@ -0,0 +1,88 @@
+package org.example.benchmark;
+
+import java.util.Locale;
+
+/**
+ * 销售金额（all_sales.amount）的分布，用字符串描述，便于直接作为 JMH @Param：
+ * uniform        - [0, 50000.00) 均匀分布
+ * lognormal:M:S  - 对数正态分布，ln(金额) ~ N(M, S^2)，例如 lognormal:7:1.5（中位数约 1097）
+ * ties:K         - 只有 K 种不同金额，同一销售人员内大量并列最大值，例如 ties:100
+ *
+ * 金额以"分"为单位的 long 表示，上限受 DECIMAL(10,2) 约束
+ */
+public final class AmountDistribution {
+
+    static final long MAX_CENTS = 9_999_999_999L;  // DECIMAL(10,2) 的最大值 99999999.99
+
+    enum Kind {
+        UNIFORM, LOGNORMAL, TIES
+    }
+
+    private final String spec;
+    private final Kind kind;
+    private final double[] args;
+
+    private AmountDistribution(String spec, Kind kind, double[] args) {
+        this.spec = spec;
+        this.kind = kind;
+        this.args = args;
+    }
+
+    public static AmountDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        Kind kind = switch (parts[0]) {
+            case "uniform" -> Kind.UNIFORM;
+            case "lognormal" -> Kind.LOGNORMAL;
+            case "ties" -> Kind.TIES;
+            default -> throw new IllegalArgumentException("未知的金额分布: " + spec);
+        };
+        int expected = switch (kind) {
+            case UNIFORM -> 0;
+            case TIES -> 1;
+            case LOGNORMAL -> 2;
+        };
+        if (parts.length - 1 != expected) {
+            throw new IllegalArgumentException("金额分布 " + parts[0] + " 需要 " + expected + " 个参数: " + spec);
+        }
+        double[] args = new double[expected];
+        for (int i = 0; i < expected; i++) {
+            args[i] = Double.parseDouble(parts[i + 1]);
+        }
+        if ((kind == Kind.TIES && (args[0] < 1 || args[0] > SalesDataGenerator.MAX_AMOUNT_CENTS))
+                || (kind == Kind.LOGNORMAL && args[1] <= 0)) {
+            throw new IllegalArgumentException("金额分布参数超出范围: " + spec);
+        }
+        return new AmountDistribution(spec.trim().toLowerCase(Locale.ROOT), kind, args);
+    }
+
+    public static AmountDistribution uniform() {
+        return parse("uniform");
+    }
+
+    /**
+     * 由该行的两个 64 位随机数生成金额（分）
+     */
+    long sampleCents(long random1, long random2) {
+        return switch (kind) {
+            case UNIFORM -> SalesDataGenerator.bounded(random1, SalesDataGenerator.MAX_AMOUNT_CENTS);
+            case TIES -> {
+                long distinct = (long) args[0];
+                long step = SalesDataGenerator.MAX_AMOUNT_CENTS / distinct;
+                yield (SalesDataGenerator.bounded(random1, distinct) + 1) * step;
+            }
+            case LOGNORMAL -> {
+                // Box-Muller：两个均匀随机数得到一个标准正态随机数
+                double u1 = ((random1 >>> 11) + 1) * 0x1.0p-53;  // (0, 1]
+                double u2 = (random2 >>> 11) * 0x1.0p-53;
+                double z = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+                double dollars = Math.exp(args[0] + args[1] * z);
+                yield Math.min(MAX_CENTS, Math.round(dollars * 100));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
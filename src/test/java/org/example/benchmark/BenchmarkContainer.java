@@ -0,0 +1,115 @@
+package org.example.benchmark;
+
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JMH 基准测试与独立压测驱动共用的 MySQL 容器（同一 JVM 内只启动一个）
+ *
+ * JMH fork 出来的 JVM 不能共享启动它的进程里的容器对象：{@link BenchmarkLauncher} 在宿主 JVM 中启动容器，
+ * 再通过系统属性 bench.jdbc.url / bench.jdbc.user / bench.jdbc.password / bench.jdbc.rootPassword
+ * 把连接坐标传给每个 fork；设置了这些属性时 {@link #target()} 直接使用它们，不再启动容器
+ *
+ * -Dbench.mysql.bufferPoolChunkSize=8M 以更小的 buffer pool chunk 启动容器，只有冷缓存测试需要
+ * （{@link CacheStateBenchmark} 的 main 自动设置），其余基准测试保持 MySQL 默认值，结果不受影响
+ */
+public class BenchmarkContainer {
+
+    static final String IMAGE = "mysql:9.0";
+    static final String CHUNK_SIZE_PROPERTY = "bench.mysql.bufferPoolChunkSize";
+
+    private static MySQLContainer<?> mysql;
+
+    private BenchmarkContainer() {
+    }
+
+    static synchronized MySQLContainer<?> start() {
+        if (mysql == null || !mysql.isRunning()) {
+            List<String> command = new ArrayList<>(List.of(
+                    "--character-set-server=utf8mb4",
+                    "--innodb-buffer-pool-size=512M",
+                    "--local-infile=1",
+                    "--max-connections=2000"  // 压测驱动每个客户端可能各占一个连接
+            ));
+            String chunkSize = System.getProperty(CHUNK_SIZE_PROPERTY);
+            if (chunkSize != null) {
+                command.add("--innodb-buffer-pool-chunk-size=" + chunkSize);
+            }
+            mysql = new MySQLContainer<>(DockerImageName.parse(IMAGE))
+                    .withDatabaseName("benchmark")
+                    .withUsername("bench")
+                    .withPassword("bench")
+                    .withCommand(command.toArray(String[]::new));
+            mysql.start();
+            grantMonitoring(mysql);
+            System.out.println("MySQL容器启动成功: " + mysql.getJdbcUrl());
+        }
+        return mysql;
+    }
+
+    /**
+     * 基准账号的连接坐标：优先使用系统属性（fork 中），否则启动（或复用）本 JVM 内的容器
+     */
+    static JdbcTarget target() {
+        String url = System.getProperty("bench.jdbc.url");
+        if (url != null) {
+            return new JdbcTarget(url, System.getProperty("bench.jdbc.user"), System.getProperty("bench.jdbc.password"));
+        }
+        return JdbcTarget.of(start());
+    }
+
+    /**
+     * root 账号的连接坐标，规则同 {@link #target()}
+     */
+    static JdbcTarget rootTarget() {
+        String url = System.getProperty("bench.jdbc.url");
+        if (url != null) {
+            return new JdbcTarget(url, "root", System.getProperty("bench.jdbc.rootPassword"));
+        }
+        return JdbcTarget.rootOf(start());
+    }
+
+    /**
+     * 传给 fork 的 JVM 参数，让 fork 连接到同一个数据库
+     */
+    static List<String> forkJvmArgs() {
+        JdbcTarget target = target();
+        JdbcTarget root = rootTarget();
+        return List.of(
+                "-Dbench.jdbc.url=" + target.url(),
+                "-Dbench.jdbc.user=" + target.username(),
+                "-Dbench.jdbc.password=" + target.password(),
+                "-Dbench.jdbc.rootPassword=" + root.password());
+    }
+
+    /**
+     * 基准账号需要读取 performance_schema 才能采集服务端开销（见 {@link ServerCostProfiler}），
+     * 读取 mysql.innodb_index_stats 才能报告索引大小（见 {@link IndexConfig}）
+     */
+    private static void grantMonitoring(MySQLContainer<?> mysql) {
+        String user = "'" + mysql.getUsername() + "'@'%'";
+        try (Connection conn = JdbcTarget.rootOf(mysql).connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("GRANT SELECT ON performance_schema.* TO " + user);
+            stmt.execute("GRANT SELECT ON mysql.innodb_index_stats TO " + user);
+        } catch (SQLException e) {
+            throw new IllegalStateException("授予监控权限失败", e);
+        }
+    }
+
+    /**
+     * 停止本 JVM 启动的容器；使用外部传入的坐标时什么也不做
+     */
+    static synchronized void stop() {
+        if (mysql != null) {
+            mysql.stop();
+            mysql = null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * 以真正 fork 的方式运行 JMH 基准测试
+ *
+ * 容器只在宿主 JVM 中启动一次，连接坐标通过 -D 系统属性追加到每个 fork 的 JVM 参数中（见 {@link BenchmarkContainer}），
+ * 每个基准方法 / 参数组合都在全新的 JVM 里运行，JIT profile 与 GC 状态不会在组合之间互相污染
+ *
+ * 运行：mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.BenchmarkLauncher -Dexec.args="TopNQueryBenchmark -f 3"
+ * 各基准测试类的 main 也都经由这里运行
+ */
+public final class BenchmarkLauncher {
+
+    /**
+     * 本次运行的环境信息（MySQL 版本、镜像等），供结果归档使用
+     */
+    static final Path ENV_FILE = Path.of("target", "bench-env.properties");
+
+    private BenchmarkLauncher() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(MySQLQueryBenchmark.class.getSimpleName());
+        }
+        try {
+            run(builder.build());
+        } finally {
+            BenchmarkContainer.stop();
+        }
+    }
+
+    /**
+     * 启动（或复用）容器，把连接坐标追加到 fork 的 JVM 参数后运行；容器由调用方在全部运行结束后停止
+     */
+    static Collection<RunResult> run(Options options) throws RunnerException {
+        exposeClasspath();
+        List<String> jvmArgs = new ArrayList<>(options.getJvmArgsAppend().orElse(List.of()));
+        jvmArgs.addAll(BenchmarkContainer.forkJvmArgs());
+        writeEnvironment();
+        Options forked = new OptionsBuilder()
+                .parent(options)
+                .jvmArgsAppend(jvmArgs.toArray(new String[0]))
+                .build();
+        Collection<RunResult> results = new Runner(forked).run();
+        archive(forked);
+        return results;
+    }
+
+    /**
+     * JSON 格式的结果追加到 {@link ResultArchive}，-Dbench.archive=false 时跳过
+     */
+    private static void archive(Options options) {
+        if (!Boolean.parseBoolean(System.getProperty("bench.archive", "true"))
+                || options.getResultFormat().orElse(null) != ResultFormatType.JSON) {
+            return;
+        }
+        Path resultFile = Path.of(options.getResult().orElse("jmh-result.json"));
+        try {
+            ResultArchive.append(resultFile, ResultArchive.ARCHIVE);
+        } catch (IOException e) {
+            System.err.println("归档 " + resultFile + " 失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * fork 的 classpath 取自 java.class.path；在 exec:java 下它只有 Maven 自己的启动 jar，
+     * 真正的测试类路径在 exec 插件创建的 URLClassLoader 里，这里把它写回 java.class.path
+     */
+    private static void exposeClasspath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (ClassLoader loader = BenchmarkLauncher.class.getClassLoader(); loader != null; loader = loader.getParent()) {
+            if (loader instanceof URLClassLoader urlLoader) {
+                for (URL url : urlLoader.getURLs()) {
+                    try {
+                        entries.add(Path.of(url.toURI()).toString());
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        // 非本地文件的 URL 不会出现在 fork 的 classpath 里
+                    }
+                }
+            }
+        }
+        if (!entries.isEmpty()) {
+            System.setProperty("java.class.path", String.join(File.pathSeparator, entries));
+        }
+    }
+
+    private static void writeEnvironment() {
+        Properties env = new Properties();
+        env.setProperty("mysql.image", BenchmarkContainer.IMAGE);
+        env.setProperty("jdbc.url", BenchmarkContainer.target().url());
+        try (Connection conn = BenchmarkContainer.target().connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT VERSION(), @@innodb_buffer_pool_size, @@innodb_buffer_pool_chunk_size")) {
+            rs.next();
+            env.setProperty("mysql.version", rs.getString(1));
+            env.setProperty("mysql.innodb_buffer_pool_size", rs.getString(2));
+            env.setProperty("mysql.innodb_buffer_pool_chunk_size", rs.getString(3));
+        } catch (SQLException e) {
+            throw new IllegalStateException("读取 MySQL 版本失败", e);
+        }
+        try {
+            Files.createDirectories(ENV_FILE.getParent());
+            try (Writer out = Files.newBufferedWriter(ENV_FILE)) {
+                env.store(out, "benchmark environment");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("写入 " + ENV_FILE + " 失败", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 清空 InnoDB buffer pool，让后续查询真正从磁盘读页
+ *
+ * MySQL 没有"丢弃缓存页"的命令，这里分两步：
+ * 1. 把 buffer pool 缩到最小（按 chunk 对齐，容器需以 -Dbench.mysql.bufferPoolChunkSize=8M 启动），缩容时多余的页被逐出
+ * 2. 在缩小后的 pool 里全表扫描一张压舱表（innodb_old_blocks_time=0，扫描到的页立即进入 young 区），把残留的页挤出去
+ * 然后恢复原来的大小，此时 pool 基本是空的
+ *
+ * MySQL 9.0 在 Linux 上默认 innodb_flush_method=O_DIRECT，读页绕过操作系统页缓存，冷态测到的是真实 I/O
+ * 需要 root 权限（SET GLOBAL、读取 information_schema.INNODB_CACHED_INDEXES）
+ */
+class BufferPoolEvictor implements AutoCloseable {
+
+    static final long MIN_POOL_SIZE = 8L * 1024 * 1024;  // 一个 chunk
+    private static final String BALLAST_SCHEMA = "cache_ballast";
+    private static final int BALLAST_ROWS = 120_000;      // 约 36MB，远大于缩小后的 pool
+
+    private final Connection root;
+    private final long originalPoolSize;
+
+    BufferPoolEvictor(JdbcTarget root) throws SQLException {
+        this.root = root.connect();
+        this.originalPoolSize = queryLong("SELECT @@innodb_buffer_pool_size");
+        long chunkSize = queryLong("SELECT @@innodb_buffer_pool_chunk_size");
+        if (chunkSize > MIN_POOL_SIZE) {
+            this.root.close();
+            throw new IllegalStateException("innodb_buffer_pool_chunk_size=" + chunkSize
+                    + "，无法把 buffer pool 缩到 " + MIN_POOL_SIZE + "；请用 CacheStateBenchmark 的 main 运行，或加 -D"
+                    + BenchmarkContainer.CHUNK_SIZE_PROPERTY + "=8M");
+        }
+        createBallast();
+    }
+
+    private void createBallast() throws SQLException {
+        try (Statement stmt = root.createStatement()) {
+            stmt.execute("CREATE DATABASE IF NOT EXISTS " + BALLAST_SCHEMA);
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + BALLAST_SCHEMA + ".ballast ("
+                    + "id INT PRIMARY KEY AUTO_INCREMENT, pad CHAR(255) NOT NULL)");
+        }
+        if (queryLong("SELECT COUNT(*) FROM " + BALLAST_SCHEMA + ".ballast") >= BALLAST_ROWS) {
+            return;
+        }
+        try (Statement stmt = root.createStatement()) {
+            stmt.execute("TRUNCATE TABLE " + BALLAST_SCHEMA + ".ballast");
+            stmt.execute("SET SESSION cte_max_recursion_depth = " + BALLAST_ROWS);
+            stmt.execute("INSERT INTO " + BALLAST_SCHEMA + ".ballast (pad) "
+                    + "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + BALLAST_ROWS + ") "
+                    + "SELECT REPEAT('x', 255) FROM seq");
+        }
+    }
+
+    /**
+     * 逐出 buffer pool 中的所有数据页，返回后 pool 已恢复原大小
+     */
+    void evictAll() throws SQLException {
+        resize(MIN_POOL_SIZE);
+        long oldBlocksTime = queryLong("SELECT @@innodb_old_blocks_time");
+        try (Statement stmt = root.createStatement()) {
+            stmt.execute("SET GLOBAL innodb_old_blocks_time = 0");
+            try (ResultSet rs = stmt.executeQuery("SELECT SUM(LENGTH(pad)) FROM " + BALLAST_SCHEMA + ".ballast")) {
+                rs.next();
+            }
+        } finally {
+            try (Statement stmt = root.createStatement()) {
+                stmt.execute("SET GLOBAL innodb_old_blocks_time = " + oldBlocksTime);
+            }
+            resize(originalPoolSize);
+        }
+    }
+
+    /**
+     * 调整 buffer pool 大小并等待后台 resize 完成
+     */
+    private void resize(long size) throws SQLException {
+        if (queryLong("SELECT @@innodb_buffer_pool_size") == size) {
+            return;
+        }
+        String before = status("Innodb_buffer_pool_resize_status");
+        try (Statement stmt = root.createStatement()) {
+            stmt.execute("SET GLOBAL innodb_buffer_pool_size = " + size);
+        }
+        long deadline = System.nanoTime() + 120_000_000_000L;
+        while (true) {
+            String code = status("Innodb_buffer_pool_resize_status_code");
+            String message = status("Innodb_buffer_pool_resize_status");
+            if ("7".equals(code)) {
+                throw new IllegalStateException("buffer pool 调整失败: " + message);
+            }
+            if ("0".equals(code) && !message.equals(before)) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("等待 buffer pool 调整超时: " + message);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待 buffer pool 调整被中断", e);
+            }
+        }
+    }
+
+    /**
+     * 指定表每个索引当前在 buffer pool 中的页数，用于确认冷/热状态确实生效
+     */
+    List<String> cachedPages(String schema, String table) throws SQLException {
+        String sql = """
+                SELECT i.NAME, COALESCE(c.N_CACHED_PAGES, 0)
+                FROM information_schema.INNODB_TABLES t
+                JOIN information_schema.INNODB_INDEXES i ON i.TABLE_ID = t.TABLE_ID
+                LEFT JOIN information_schema.INNODB_CACHED_INDEXES c ON c.INDEX_ID = i.INDEX_ID
+                WHERE t.NAME = ?
+                ORDER BY i.INDEX_ID
+                """;
+        List<String> pages = new ArrayList<>();
+        try (PreparedStatement stmt = root.prepareStatement(sql)) {
+            stmt.setString(1, schema + "/" + table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    pages.add(rs.getString(1) + "=" + rs.getLong(2));
+                }
+            }
+        }
+        return pages;
+    }
+
+    private String status(String name) throws SQLException {
+        try (PreparedStatement stmt = root.prepareStatement("SHOW GLOBAL STATUS LIKE ?")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(2) : "";
+            }
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement stmt = root.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        root.close();
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.List;
+
+/**
+ * {@link TopSalesCacheBenchmark} 的次要指标：读到的结果比数据库落后多久（·staleness.*）、缓存定点重查次数（·cache.requeries）
+ *
+ * cachedRead：缓存每应用一条变更调用 {@link #applied}，按本轮迭代内记录的滞后（从提交到缓存应用）输出 p50 / p99 / max
+ * lateralQuery：每次执行都读到最新数据，看板按 pollIntervalMillis 的间隔重新执行时，
+ * 一条变更要等到下一次刷新才可见，落在两次刷新之间的任意时刻，滞后在 [0, 间隔] 上均匀分布（不含查询本身的耗时）
+ *
+ * 使用：OptionsBuilder.addProfiler(CacheStalenessProfiler.class)，或命令行 -prof org.example.benchmark.CacheStalenessProfiler
+ */
+public class CacheStalenessProfiler implements InternalProfiler {
+
+    private static final Object LOCK = new Object();
+    private static final LatencyHistogram STALENESS = new LatencyHistogram();
+    private static long requeries;
+
+    /**
+     * 缓存应用一条变更后调用
+     *
+     * @param lagNanos  从提交到缓存应用的时间，小于 0 表示这条变更不是计时写入产生的
+     * @param requeried 这次应用触发的定点重查次数
+     */
+    static void applied(long lagNanos, long requeried) {
+        synchronized (LOCK) {
+            if (lagNanos >= 0) {
+                STALENESS.record(lagNanos);
+            }
+            requeries += requeried;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "增量缓存：读到的结果落后数据库的时间、定点重查次数";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        synchronized (LOCK) {
+            STALENESS.reset();
+            requeries = 0;
+        }
+    }
+
+    /**
+     * 每轮迭代输出一次；多轮迭代之间 p50 / p99 按 AVG 汇总，max 取 MAX，重查次数累加
+     */
+    @Override
+    public List<? extends Result<?>> afterIteration(BenchmarkParams benchmarkParams,
+                                                    IterationParams iterationParams,
+                                                    IterationResult result) {
+        if (benchmarkParams.getBenchmark().endsWith(".lateralQuery")) {
+            double refreshMs = Double.parseDouble(benchmarkParams.getParam("pollIntervalMillis"));
+            return List.of(
+                    new ScalarResult("·staleness.p50", refreshMs * 0.50, "ms", AggregationPolicy.AVG),
+                    new ScalarResult("·staleness.p99", refreshMs * 0.99, "ms", AggregationPolicy.AVG),
+                    new ScalarResult("·staleness.max", refreshMs, "ms", AggregationPolicy.MAX));
+        }
+        synchronized (LOCK) {
+            if (STALENESS.count() == 0) {
+                return List.of(new ScalarResult("·cache.requeries", requeries, "#", AggregationPolicy.SUM));
+            }
+            return List.of(
+                    new ScalarResult("·staleness.p50", STALENESS.percentileMs(50), "ms", AggregationPolicy.AVG),
+                    new ScalarResult("·staleness.p99", STALENESS.percentileMs(99), "ms", AggregationPolicy.AVG),
+                    new ScalarResult("·staleness.max", STALENESS.max() / 1_000_000.0, "ms", AggregationPolicy.MAX),
+                    new ScalarResult("·cache.requeries", requeries, "#", AggregationPolicy.SUM));
+        }
+    }
+}
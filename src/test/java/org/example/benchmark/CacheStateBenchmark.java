@@ -0,0 +1,133 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InnoDB buffer pool 冷热状态对查询的影响
+ *
+ * 其他基准测试都在预热之后测量，测到的全是热缓存；故障切换后的只读副本往往是冷的。
+ * 这里每轮迭代只执行一次查询（SingleShotTime），迭代开始前按 cacheState 准备缓存：
+ * HOT      所有索引全部读入 buffer pool
+ * COLD     清空 buffer pool（见 {@link BufferPoolEvictor}），查询的每一页都要从磁盘读
+ * PARTIAL  清空后只读回前一半主键范围的聚簇索引页和 salesperson 表，二级索引保持冷
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+public class CacheStateBenchmark extends SalesBenchmarkBase {
+
+    public enum CacheState {
+        HOT, COLD, PARTIAL
+    }
+
+    @Param({"HOT", "COLD", "PARTIAL"})
+    private CacheState cacheState;
+
+    private BufferPoolEvictor evictor;
+
+    @Override
+    protected void afterDataset() throws SQLException {
+        evictor = new BufferPoolEvictor(root);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareCache() throws SQLException {
+        switch (cacheState) {
+            case HOT -> {
+                for (String index : indexNames()) {
+                    scan("SELECT COUNT(*) FROM all_sales FORCE INDEX (`" + index + "`)");
+                }
+                scan("SELECT COUNT(*) FROM salesperson");
+            }
+            case COLD -> evictor.evictAll();
+            case PARTIAL -> {
+                evictor.evictAll();
+                scan("SELECT SUM(LENGTH(customer_name)) FROM all_sales FORCE INDEX (PRIMARY) WHERE id <= " + salesCount / 2);
+                scan("SELECT COUNT(*) FROM salesperson");
+            }
+        }
+        System.out.println("\n" + cacheState + " 缓存页: " + String.join(", ", evictor.cachedPages(schema, "all_sales")));
+    }
+
+    private List<String> indexNames() throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT DISTINCT INDEX_NAME FROM information_schema.STATISTICS "
+                     + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'all_sales' AND IS_VISIBLE = 'YES'")) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+
+    private void scan(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+        }
+    }
+
+    private int run(String sql) throws SQLException {
+        int count = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int lateralQuery() throws SQLException {
+        return run(QuickBenchmarkTest.LATERAL_SQL);
+    }
+
+    @Benchmark
+    public int windowFunctionQuery() throws SQLException {
+        return run(QuickBenchmarkTest.WINDOW_SQL);
+    }
+
+    @Benchmark
+    public int correlatedSubqueryQuery() throws SQLException {
+        return run(QuickBenchmarkTest.CORRELATED_SUBQUERY_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeEvictor() throws SQLException {
+        if (evictor != null) {
+            evictor.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 本 JVM 启动的容器只供冷缓存测试使用，以小 chunk 启动不影响其他基准测试
+        if (System.getProperty(BenchmarkContainer.CHUNK_SIZE_PROPERTY) == null) {
+            System.setProperty(BenchmarkContainer.CHUNK_SIZE_PROPERTY, "8M");
+        }
+        Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(CacheStateBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-cache-state.json")
+                .build();
+
+        BenchmarkLauncher.run(opt);
+
+        stopContainer();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端聚合与服务端单条查询随数据量增长的对比
+ *
+ * strategy 参数：
+ * LATERAL / WINDOW   服务端单条查询
+ * CLIENT             单连接流式读取、客户端聚合（{@link ClientSideTopSales}）
+ * PARALLEL:N         N 个连接按主键范围并行扫描、ForkJoin 归并（{@link ParallelClientTopSales}）
+ *
+ * main 默认把 salesCount 扫过 5 万 / 50 万 / 200 万（可用 -p salesCount=... 覆盖）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class ClientAggregationBenchmark extends SalesBenchmarkBase {
+
+    @Param({"LATERAL", "WINDOW", "CLIENT", "PARALLEL:2", "PARALLEL:4", "PARALLEL:8"})
+    private String strategy;
+
+    private ParallelClientTopSales parallel;
+
+    @Override
+    protected void afterDataset() throws SQLException {
+        if (strategy.startsWith("PARALLEL:")) {
+            parallel = new ParallelClientTopSales(datasetTarget(),
+                    Integer.parseInt(strategy.substring("PARALLEL:".length())));
+        } else if (!strategy.equals("LATERAL") && !strategy.equals("WINDOW") && !strategy.equals("CLIENT")) {
+            throw new IllegalArgumentException("未知的 strategy: " + strategy
+                    + "，可选 LATERAL / WINDOW / CLIENT / PARALLEL:N");
+        }
+
+        // 本次 trial 的写法必须与 LATERAL 返回相同的结果（按 ResultDigest 摘要比较）
+        Map<String, ResultDigest.Source> sources = new LinkedHashMap<>();
+        sources.put("LATERAL", tied -> ResultDigest.query(connection, QuickBenchmarkTest.LATERAL_SQL, tied));
+        sources.put(strategy, tied -> switch (strategy) {
+            case "LATERAL", "WINDOW" -> ResultDigest.query(connection, sqlOf(strategy), tied);
+            case "CLIENT" -> ResultDigest.of(ClientSideTopSales.compute(connection, salespersonCount), tied);
+            default -> ResultDigest.of(parallel.compute(salespersonCount), tied);
+        });
+        ResultDigest.verify(connection, sources);
+    }
+
+    @TearDown(Level.Trial)
+    public void closePartitions() throws SQLException {
+        if (parallel != null) {
+            parallel.close();
+        }
+    }
+
+    @Benchmark
+    public int topSales() throws SQLException {
+        return switch (strategy) {
+            case "LATERAL", "WINDOW" -> run(sqlOf(strategy));
+            case "CLIENT" -> ClientSideTopSales.compute(connection, salespersonCount).size();
+            default -> parallel.compute(salespersonCount).size();
+        };
+    }
+
+    private static String sqlOf(String strategy) {
+        return strategy.equals("LATERAL") ? QuickBenchmarkTest.LATERAL_SQL : QuickBenchmarkTest.WINDOW_SQL;
+    }
+
+    private int run(String sql) throws SQLException {
+        int count = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .include(ClientAggregationBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-client-aggregation.json");
+        if (!commandLine.getParameter("salesCount").hasValue()) {
+            builder.param("salesCount", "50000", "500000", "2000000");
+        }
+
+        BenchmarkLauncher.run(builder.build());
+
+        stopContainer();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 客户端聚合：把 all_sales 流式读一遍，在 JVM 里求每个销售人员的最大销售额，再与 salesperson 表的名字做哈希连接
+ *
+ * 即"把原始行拉回应用再聚合"的做法，与 LATERAL / 窗口函数等服务端写法端到端对比：
+ * 结果按流式读取（setFetchSize(Integer.MIN_VALUE)），驱动不缓冲整个结果集；
+ * 金额在 SQL 里换算成整数分，用 getLong 读取，避免逐行创建 BigDecimal；客户名只在最大值被刷新时才读取。
+ * 与 LATERAL 一样只返回有销售记录的销售人员，金额相同时取 id 最小的记录
+ */
+final class ClientSideTopSales {
+
+    /**
+     * 一个销售人员的最大销售额
+     */
+    record TopSale(String salespersonName, long amountCents, String customerName) {
+    }
+
+    static final String SCAN_SQL = "SELECT id, salesperson_id, CAST(amount * 100 AS SIGNED), customer_name FROM all_sales";
+
+    private ClientSideTopSales() {
+    }
+
+    static List<TopSale> compute(Connection connection, int expectedSalespersons) throws SQLException {
+        TopSaleMap best = new TopSaleMap(expectedSalespersons);
+        try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(SCAN_SQL)) {
+                accumulate(rs, best);
+            }
+        }
+        return join(connection, best);
+    }
+
+    /**
+     * 把结果集（列顺序同 {@link #SCAN_SQL}）逐行并入 best
+     */
+    static void accumulate(ResultSet rs, TopSaleMap best) throws SQLException {
+        while (rs.next()) {
+            int slot = best.offer(rs.getInt(2), rs.getLong(3), rs.getInt(1));
+            if (slot >= 0) {
+                best.setCustomerName(slot, rs.getString(4));
+            }
+        }
+    }
+
+    /**
+     * 读取 salesperson 表，按 id 在 best 中查找，拼出最终结果
+     */
+    static List<TopSale> join(Connection connection, TopSaleMap best) throws SQLException {
+        List<TopSale> result = new ArrayList<>(best.size());
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM salesperson")) {
+            while (rs.next()) {
+                int slot = best.find(rs.getInt(1));
+                if (slot >= 0) {
+                    result.add(new TopSale(rs.getString(2), best.amountCents(slot), best.customerName(slot)));
+                }
+            }
+        }
+        return result;
+    }
+}
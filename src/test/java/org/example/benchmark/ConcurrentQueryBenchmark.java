@@ -0,0 +1,124 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并发查询基准测试：多个客户端同时查询同一组表时的吞吐量（ops/s）与平均耗时
+ *
+ * 数据集按 trial 准备一次（Scope.Benchmark），每个 JMH 线程持有自己的连接（Scope.Thread），
+ * 线程数由 main 依次设置为 1/8/16/32/64，也可以用 -Dbench.threads=8,64 指定
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class ConcurrentQueryBenchmark extends SalesBenchmarkBase {
+
+    static final int[] DEFAULT_THREAD_COUNTS = {1, 8, 16, 32, 64};
+
+    /**
+     * 每个线程独占的连接
+     */
+    @State(Scope.Thread)
+    public static class ThreadConnection {
+
+        Connection connection;
+
+        @Setup(Level.Trial)
+        public void open(ConcurrentQueryBenchmark benchmark) throws SQLException {
+            connection = benchmark.datasetTarget().connect();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        int run(String sql) throws SQLException {
+            int count = 0;
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    @Benchmark
+    public int lateralQuery(ThreadConnection conn) throws SQLException {
+        return conn.run(QuickBenchmarkTest.LATERAL_SQL);
+    }
+
+    @Benchmark
+    public int windowFunctionQuery(ThreadConnection conn) throws SQLException {
+        return conn.run(QuickBenchmarkTest.WINDOW_SQL);
+    }
+
+    @Benchmark
+    public int correlatedSubqueryQuery(ThreadConnection conn) throws SQLException {
+        return conn.run(QuickBenchmarkTest.CORRELATED_SUBQUERY_SQL);
+    }
+
+    /**
+     * 混合负载：LATERAL 与窗口函数查询同时运行，各占一半线程
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int mixedLateral(ThreadConnection conn) throws SQLException {
+        return conn.run(QuickBenchmarkTest.LATERAL_SQL);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int mixedWindow(ThreadConnection conn) throws SQLException {
+        return conn.run(QuickBenchmarkTest.WINDOW_SQL);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : threadCounts()) {
+            System.out.printf("%n====== 并发线程数: %d ======%n", threads);
+            // threads 对 mixed 组会按组大小（2）向上取整
+            Options opt = new OptionsBuilder()
+                    .parent(new CommandLineOptions(args))
+                    .include(ConcurrentQueryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.TEXT)
+                    .result("jmh-result-concurrent-t" + threads + ".text")
+                    .build();
+
+            BenchmarkLauncher.run(opt);
+        }
+
+        stopContainer();
+    }
+
+    private static int[] threadCounts() {
+        String property = System.getProperty("bench.threads");
+        if (property == null || property.isBlank()) {
+            return DEFAULT_THREAD_COUNTS;
+        }
+        String[] parts = property.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            counts[i] = Integer.parseInt(parts[i].trim());
+        }
+        return counts;
+    }
+}
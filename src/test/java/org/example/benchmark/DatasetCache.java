@@ -0,0 +1,100 @@
+package org.example.benchmark;
+
+import java.sql.*;
+
+/**
+ * 数据集缓存
+ * 每个 {@link DatasetSpec} 只物化一次，存放在独立的 schema 中；后续 trial 直接切换过去，不再重建数据
+ *
+ * 缓存状态保存在 MySQL 自身（schema + dataset_manifest 完成标记），
+ * 因此只要容器不重启，跨 trial、跨 fork 都能复用
+ */
+public class DatasetCache {
+
+    private final JdbcTarget target;  // 普通用户，负责加载数据
+    private final JdbcTarget root;    // root，负责建库与授权
+    private final SalesDataLoader.LoadMode loadMode;
+    private final int loadThreads;
+
+    public DatasetCache(JdbcTarget target, JdbcTarget root, SalesDataLoader.LoadMode loadMode, int loadThreads) {
+        this.target = target;
+        this.root = root;
+        this.loadMode = loadMode;
+        this.loadThreads = loadThreads;
+    }
+
+    /**
+     * 确保数据集已物化，返回其 schema 名；调用方用 Connection.setCatalog 切换过去即可
+     */
+    public String acquire(DatasetSpec spec) throws SQLException {
+        String schema = spec.schemaName();
+        if (isMaterialized(schema, spec)) {
+            System.out.printf("复用已缓存的数据集 %s (%s)%n", schema, spec);
+            return schema;
+        }
+
+        try (Connection conn = root.connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP DATABASE IF EXISTS `" + schema + "`");
+            stmt.execute("CREATE DATABASE `" + schema + "`");
+            stmt.execute("GRANT ALL ON `" + schema + "`.* TO '" + target.username() + "'@'%'");
+        }
+
+        JdbcTarget schemaTarget = target.withDatabase(schema);
+        SalesDataLoader.LoadStats stats = new SalesDataLoader(schemaTarget, loadMode, loadThreads)
+                .load(spec);
+
+        // 最后写入完成标记：加载中途失败的 schema 不会被误认为可用
+        try (Connection conn = schemaTarget.connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE dataset_manifest (
+                    spec VARCHAR(255) PRIMARY KEY,
+                    load_mode VARCHAR(20) NOT NULL,
+                    load_seconds DOUBLE NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                ) ENGINE=InnoDB
+                """);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO dataset_manifest (spec, load_mode, load_seconds) VALUES (?, ?, ?)")) {
+                pstmt.setString(1, spec.toString());
+                pstmt.setString(2, stats.mode().name());
+                pstmt.setDouble(3, stats.elapsedNanos() / 1_000_000_000.0);
+                pstmt.executeUpdate();
+            }
+        }
+        System.out.printf("数据集已物化到 %s (%s)%n", schema, spec);
+        return schema;
+    }
+
+    /**
+     * 丢弃某个数据集，例如基准测试修改了其中的数据之后
+     */
+    public void invalidate(DatasetSpec spec) throws SQLException {
+        try (Connection conn = root.connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP DATABASE IF EXISTS `" + spec.schemaName() + "`");
+        }
+    }
+
+    private boolean isMaterialized(String schema, DatasetSpec spec) throws SQLException {
+        try (Connection conn = root.connect()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT 1 FROM information_schema.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = 'dataset_manifest'")) {
+                pstmt.setString(1, schema);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT 1 FROM `" + schema + "`.dataset_manifest WHERE spec = ?")) {
+                pstmt.setString(1, spec.toString());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        }
+    }
+}
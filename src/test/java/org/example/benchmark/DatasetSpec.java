@@ -0,0 +1,36 @@
+package org.example.benchmark;
+
+/**
+ * 一份测试数据集的完整描述，决定生成出来的数据内容
+ * 参数相同的数据集只需物化一次，见 {@link DatasetCache}
+ *
+ * groupDistribution / amountDistribution 的写法见 {@link GroupDistribution}、{@link AmountDistribution}
+ */
+public record DatasetSpec(int salespersonCount, int salesCount, long seed,
+                          String groupDistribution, String amountDistribution) {
+
+    public DatasetSpec {
+        // 规范化写法，保证 "Zipf:1.2" 与 "zipf:1.2" 对应同一个数据集
+        groupDistribution = GroupDistribution.parse(groupDistribution).toString();
+        amountDistribution = AmountDistribution.parse(amountDistribution).toString();
+    }
+
+    public DatasetSpec(int salespersonCount, int salesCount, long seed) {
+        this(salespersonCount, salesCount, seed, "uniform", "uniform");
+    }
+
+    /**
+     * 物化该数据集的 schema 名，由参数唯一确定
+     * 分布参数可能很长，用完整描述的哈希代替，避免超过 MySQL 64 字符的标识符上限
+     */
+    String schemaName() {
+        return "ds_sp" + salespersonCount + "_s" + salesCount + "_" + Long.toHexString(SalesDataGenerator.mix64(
+                seed ^ ((long) groupDistribution.hashCode() << 32 | (amountDistribution.hashCode() & 0xFFFFFFFFL))));
+    }
+
+    @Override
+    public String toString() {
+        return "salespersonCount=" + salespersonCount + ", salesCount=" + salesCount + ", seed=" + seed
+                + ", groupDistribution=" + groupDistribution + ", amountDistribution=" + amountDistribution;
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 结果集读取方式对客户端内存的影响
+ *
+ * 默认情况下 Connector/J 会把整个结果集读进客户端堆再返回，大结果集（Top-N 导出）会直接占满内存。
+ * fetchMode 参数：
+ * buffered     驱动默认，一次性缓冲全部结果
+ * streaming    setFetchSize(Integer.MIN_VALUE)，逐行从 socket 读取，读完之前连接不能做别的事
+ * cursor:N     useCursorFetch=true + setFetchSize(N)，服务端游标每次取 N 行
+ * driverProperties 追加到连接 URL 的其他 Connector/J 属性（例如 defaultFetchSize=500、useReadAheadInput=false），
+ * 用来试驱动自身的结果集缓冲设置
+ *
+ * 每次调用都把每一列读出来交给 Blackhole，模拟真实的导出；
+ * main 默认挂上 GCProfiler，gc.alloc.rate.norm 即每次调用的分配字节数（B/op）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class FetchModeBenchmark extends SalesBenchmarkBase {
+
+    @Param({"buffered", "streaming", "cursor:100", "cursor:1000"})
+    private String fetchMode;
+
+    @Param({""})
+    private String driverProperties;
+
+    @Param({"20", "100"})
+    private int topN;  // Top-N 导出中每个销售人员的记录数，结果行数 = salespersonCount * topN
+
+    private Connection fetchConnection;
+    private int fetchSize;  // 0 表示不调用 setFetchSize
+
+    @Override
+    protected void afterDataset() throws SQLException {
+        JdbcTarget fetchTarget = datasetTarget();
+        if (fetchMode.equals("buffered")) {
+            fetchSize = 0;
+        } else if (fetchMode.equals("streaming")) {
+            fetchSize = Integer.MIN_VALUE;
+        } else if (fetchMode.startsWith("cursor:")) {
+            fetchSize = Integer.parseInt(fetchMode.substring("cursor:".length()));
+            fetchTarget = fetchTarget.withProperties("useCursorFetch=true");
+        } else {
+            throw new IllegalArgumentException("未知的 fetchMode: " + fetchMode
+                    + "，可选 buffered / streaming / cursor:N");
+        }
+        if (!driverProperties.isEmpty()) {
+            fetchTarget = fetchTarget.withProperties(driverProperties);
+        }
+        fetchConnection = fetchTarget.connect();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeFetchConnection() throws SQLException {
+        if (fetchConnection != null) {
+            fetchConnection.close();
+        }
+    }
+
+    /**
+     * 用 PreparedStatement 执行：游标读取只对服务端预处理语句生效（useCursorFetch 会自动打开 useServerPrepStmts），
+     * 其他模式下它与普通 Statement 等价
+     */
+    private int export(String sql, Blackhole bh) throws SQLException {
+        int count = 0;
+        try (PreparedStatement stmt = fetchConnection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            if (fetchSize != 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    bh.consume(rs.getString(1));
+                    bh.consume(rs.getBigDecimal(2));
+                    bh.consume(rs.getString(3));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int topNLateral(Blackhole bh) throws SQLException {
+        return export(TopNQueries.LATERAL.sql(topN), bh);
+    }
+
+    @Benchmark
+    public int topNWindow(Blackhole bh) throws SQLException {
+        return export(TopNQueries.WINDOW.sql(topN), bh);
+    }
+
+    /**
+     * 全量导出：每个销售人员的全部记录，结果行数 = salesCount
+     */
+    @Benchmark
+    public int exportAll(Blackhole bh) throws SQLException {
+        return export("""
+                SELECT s.name, a.amount, a.customer_name
+                FROM salesperson s
+                JOIN all_sales a ON a.salesperson_id = s.id
+                ORDER BY a.salesperson_id, a.amount DESC, a.id
+                """, bh);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(FetchModeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-fetch-mode.json")
+                .build();
+
+        BenchmarkLauncher.run(opt);
+
+        stopContainer();
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.benchmark;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 销售记录在销售人员之间的分布（分组大小的倾斜程度）
+ *
+ * 用字符串描述，便于直接作为 JMH @Param：
+ * uniform           - 轮询分配（i % salespersonCount），每组大小完全相同
+ * zipf:S            - Zipf 分布，第 k 个销售人员的权重为 1/k^S，S 越大越倾斜
+ * hotspot:H:P       - 前 H 比例的销售人员占 P 比例的销售记录，例如 hotspot:0.1:0.9
+ * giant:G           - 1 号销售人员独占 G 比例的销售记录，其余均匀分布，例如 giant:0.5
+ *
+ * 注意：倾斜分布下可能有销售人员没有任何销售记录
+ */
+public final class GroupDistribution {
+
+    enum Kind {
+        UNIFORM, ZIPF, HOTSPOT, GIANT
+    }
+
+    private final String spec;
+    private final Kind kind;
+    private final double[] args;
+
+    private GroupDistribution(String spec, Kind kind, double[] args) {
+        this.spec = spec;
+        this.kind = kind;
+        this.args = args;
+    }
+
+    public static GroupDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        Kind kind = switch (parts[0]) {
+            case "uniform" -> Kind.UNIFORM;
+            case "zipf" -> Kind.ZIPF;
+            case "hotspot" -> Kind.HOTSPOT;
+            case "giant" -> Kind.GIANT;
+            default -> throw new IllegalArgumentException("未知的分组分布: " + spec);
+        };
+        int expected = switch (kind) {
+            case UNIFORM -> 0;
+            case ZIPF, GIANT -> 1;
+            case HOTSPOT -> 2;
+        };
+        if (parts.length - 1 != expected) {
+            throw new IllegalArgumentException("分组分布 " + parts[0] + " 需要 " + expected + " 个参数: " + spec);
+        }
+        double[] args = new double[expected];
+        for (int i = 0; i < expected; i++) {
+            args[i] = Double.parseDouble(parts[i + 1]);
+        }
+        if ((kind == Kind.HOTSPOT && (args[0] <= 0 || args[0] >= 1 || args[1] <= 0 || args[1] >= 1))
+                || (kind == Kind.GIANT && (args[0] <= 0 || args[0] >= 1))
+                || (kind == Kind.ZIPF && args[0] <= 0)) {
+            throw new IllegalArgumentException("分组分布参数超出范围: " + spec);
+        }
+        return new GroupDistribution(spec.trim().toLowerCase(Locale.ROOT), kind, args);
+    }
+
+    public static GroupDistribution uniform() {
+        return parse("uniform");
+    }
+
+    /**
+     * 为给定的销售人员数量预计算抽样表；返回的 Sampler 是不可变的，可被多个线程共享
+     */
+    public Sampler sampler(int salespersonCount) {
+        return new Sampler(this, salespersonCount);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    /**
+     * 按分布把 (行号, 随机数) 映射为 salesperson_id，取值范围 [1, salespersonCount]
+     */
+    public static final class Sampler {
+
+        private final Kind kind;
+        private final int salespersonCount;
+        private final double[] args;
+        private final double[] cdf;  // 仅 ZIPF 使用
+        private final int hotCount;  // 仅 HOTSPOT 使用
+
+        private Sampler(GroupDistribution distribution, int salespersonCount) {
+            this.kind = distribution.kind;
+            this.salespersonCount = salespersonCount;
+            this.args = distribution.args;
+            this.cdf = kind == Kind.ZIPF ? zipfCdf(salespersonCount, args[0]) : null;
+            this.hotCount = kind == Kind.HOTSPOT
+                    ? Math.max(1, Math.min(salespersonCount - 1, (int) Math.ceil(salespersonCount * args[0])))
+                    : 0;
+        }
+
+        /**
+         * @param row    行号
+         * @param random 该行的一个 64 位随机数
+         */
+        public int sample(long row, long random) {
+            if (kind == Kind.UNIFORM || salespersonCount == 1) {
+                return (int) (row % salespersonCount) + 1;
+            }
+            double u = (random >>> 11) * 0x1.0p-53;  // [0, 1)
+            return switch (kind) {
+                case ZIPF -> {
+                    int index = Arrays.binarySearch(cdf, u);
+                    yield (index >= 0 ? index + 1 : -index - 1) + 1;
+                }
+                case HOTSPOT -> {
+                    double p = args[1];
+                    yield u < p
+                            ? 1 + (int) (u / p * hotCount)
+                            : 1 + hotCount + (int) ((u - p) / (1 - p) * (salespersonCount - hotCount));
+                }
+                case GIANT -> {
+                    double g = args[0];
+                    yield u < g ? 1 : 2 + (int) ((u - g) / (1 - g) * (salespersonCount - 1));
+                }
+                default -> throw new IllegalStateException();
+            };
+        }
+
+        private static double[] zipfCdf(int n, double exponent) {
+            double[] cdf = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += 1.0 / Math.pow(k, exponent);
+                cdf[k - 1] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cdf[k] /= sum;
+            }
+            cdf[n - 1] = 1.0;
+            return cdf;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * all_sales 上二级索引的组合，作为 JMH @Param（indexConfig）使用
+ *
+ * DEFAULT   idx_salesperson + idx_salesperson_amount（建表时的默认组合）
+ * NONE      没有二级索引
+ * SP        仅 (salesperson_id)
+ * SP_AMOUNT 仅 (salesperson_id, amount DESC)
+ * COVERING  仅覆盖索引 (salesperson_id, amount DESC, customer_name)
+ *
+ * 切换组合时不删除索引，而是用 ALTER INDEX ... INVISIBLE / VISIBLE 隐藏不需要的索引，表不需要重建；
+ * 缺少的索引第一次用到时才创建，此时报告构建耗时。
+ * 不可见索引仍会在每次写入时维护：写入型基准测试的写开销与锁等待会取决于之前跑过哪些组合，
+ * 因此它们在 trial 开始前调用 {@link #dropHidden} 删掉不属于当前组合的索引
+ */
+public enum IndexConfig {
+
+    DEFAULT("idx_salesperson", "idx_salesperson_amount"),
+    NONE(),
+    SP("idx_salesperson"),
+    SP_AMOUNT("idx_salesperson_amount"),
+    COVERING("idx_salesperson_amount_customer");
+
+    /**
+     * 所有候选索引及其定义
+     */
+    static final Map<String, String> INDEX_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        INDEX_COLUMNS.put("idx_salesperson", "salesperson_id");
+        INDEX_COLUMNS.put("idx_salesperson_amount", "salesperson_id, amount DESC");
+        INDEX_COLUMNS.put("idx_salesperson_amount_customer", "salesperson_id, amount DESC, customer_name");
+    }
+
+    private final List<String> visibleIndexes;
+
+    IndexConfig(String... visibleIndexes) {
+        this.visibleIndexes = List.of(visibleIndexes);
+    }
+
+    /**
+     * 在 connection 当前所在的 schema 上应用该组合，并打印每个索引的构建耗时与大小
+     */
+    void apply(Connection connection) throws SQLException {
+        Map<String, Boolean> existing = existingIndexes(connection);
+        Map<String, Double> buildSeconds = new HashMap<>();
+        try (Statement stmt = connection.createStatement()) {
+            for (String index : visibleIndexes) {
+                if (!existing.containsKey(index)) {
+                    long start = System.nanoTime();
+                    stmt.execute("ALTER TABLE all_sales ADD INDEX " + index + " (" + INDEX_COLUMNS.get(index) + "), "
+                            + "ALGORITHM=INPLACE, LOCK=NONE");
+                    buildSeconds.put(index, (System.nanoTime() - start) / 1_000_000_000.0);
+                    existing.put(index, true);
+                }
+            }
+            if (!buildSeconds.isEmpty()) {
+                stmt.execute("ANALYZE TABLE all_sales");  // 刷新 innodb_index_stats 中的索引大小
+            }
+            for (Map.Entry<String, Boolean> index : existing.entrySet()) {
+                boolean visible = visibleIndexes.contains(index.getKey());
+                if (index.getValue() != visible) {
+                    stmt.execute("ALTER TABLE all_sales ALTER INDEX " + index.getKey()
+                            + (visible ? " VISIBLE" : " INVISIBLE"));
+                }
+            }
+        }
+
+        Map<String, Long> sizes = indexSizes(connection);
+        System.out.println("索引组合 " + this + ":");
+        for (String index : existing.keySet()) {
+            System.out.printf("  %-32s %-6s %8.2f MB%s%n", index,
+                    visibleIndexes.contains(index) ? "可见" : "不可见",
+                    sizes.getOrDefault(index, 0L) / 1024.0 / 1024.0,
+                    buildSeconds.containsKey(index) ? String.format("  构建耗时 %.2f s", buildSeconds.get(index)) : "");
+        }
+    }
+
+    /**
+     * 删除 connection 当前 schema 上不属于该组合的二级索引，供写入型基准测试在 {@link #apply} 之后调用
+     * 被删的索引之后的只读 trial 需要时会重新创建
+     */
+    void dropHidden(Connection connection) throws SQLException {
+        List<String> hidden = existingIndexes(connection).keySet().stream()
+                .filter(index -> !visibleIndexes.contains(index))
+                .toList();
+        if (hidden.isEmpty()) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE all_sales " + hidden.stream()
+                    .map(index -> "DROP INDEX " + index)
+                    .collect(Collectors.joining(", ")));
+        }
+        System.out.println("写入前删除不可见索引: " + String.join(", ", hidden));
+    }
+
+    /**
+     * 当前已有的二级索引及其可见性
+     */
+    private static Map<String, Boolean> existingIndexes(Connection connection) throws SQLException {
+        Map<String, Boolean> indexes = new LinkedHashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                 SELECT DISTINCT INDEX_NAME, IS_VISIBLE
+                 FROM information_schema.STATISTICS
+                 WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'all_sales' AND INDEX_NAME <> 'PRIMARY'
+                 ORDER BY INDEX_NAME
+                 """)) {
+            while (rs.next()) {
+                indexes.put(rs.getString(1), "YES".equals(rs.getString(2)));
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * 各索引占用的字节数：mysql.innodb_index_stats 中的 size（页数）乘以页大小
+     */
+    private static Map<String, Long> indexSizes(Connection connection) throws SQLException {
+        Map<String, Long> sizes = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement("""
+                 SELECT index_name, stat_value * @@innodb_page_size
+                 FROM mysql.innodb_index_stats
+                 WHERE database_name = DATABASE() AND table_name = 'all_sales' AND stat_name = 'size'
+                 """);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                sizes.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        return sizes;
+    }
+}
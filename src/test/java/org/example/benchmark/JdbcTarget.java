@@ -0,0 +1,51 @@
+package org.example.benchmark;
+
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * JDBC连接坐标（URL + 用户名 + 密码）
+ * 多线程加载等场景需要为每个工作线程单独建立连接，仅持有一个 Connection 不够用
+ */
+public record JdbcTarget(String url, String username, String password) {
+
+    static JdbcTarget of(MySQLContainer<?> mysql) {
+        return new JdbcTarget(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+    }
+
+    /**
+     * root 账号：Testcontainers 会把 MYSQL_ROOT_PASSWORD 设置为与普通用户相同的密码
+     * 建库、授权、修改全局变量等操作需要用它
+     */
+    static JdbcTarget rootOf(MySQLContainer<?> mysql) {
+        return new JdbcTarget(mysql.getJdbcUrl(), "root", mysql.getPassword());
+    }
+
+    /**
+     * 把 URL 中的默认库替换为 database，例如 jdbc:mysql://host:3306/benchmark?x=y -> jdbc:mysql://host:3306/ds_xxx?x=y
+     */
+    JdbcTarget withDatabase(String database) {
+        int hostStart = url.indexOf("//") + 2;
+        int pathStart = url.indexOf('/', hostStart);
+        int queryStart = url.indexOf('?', hostStart);
+        int hostEnd = pathStart >= 0 && (queryStart < 0 || pathStart < queryStart) ? pathStart
+                : queryStart >= 0 ? queryStart : url.length();
+        String query = queryStart >= 0 ? url.substring(queryStart) : "";
+        return new JdbcTarget(url.substring(0, hostEnd) + "/" + database + query, username, password);
+    }
+
+    /**
+     * 追加 Connector/J 连接属性，例如 "rewriteBatchedStatements=true"
+     */
+    JdbcTarget withProperties(String properties) {
+        String separator = url.contains("?") ? "&" : "?";
+        return new JdbcTarget(url + separator + properties, username, password);
+    }
+
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 极简 JSON 解析与输出，只为读取 EXPLAIN FORMAT=JSON、JMH 结果文件等少量数据，避免为此引入 JSON 库
+ *
+ * 对象解析为保持键顺序的 {@link LinkedHashMap}，数组为 {@link List}，
+ * 整数为 {@link Long}，其他数字为 {@link Double}，另有 String / Boolean / null
+ */
+final class Json {
+
+    private final String text;
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("多余的内容");
+        }
+        return value;
+    }
+
+    /**
+     * 把 {@link #parse} 得到的结构（Map / List / String / Number / Boolean / null）写成单行 JSON
+     */
+    static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        write(value, sb);
+        return sb.toString();
+    }
+
+    private static void write(Object value, StringBuilder sb) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof String string) {
+            sb.append(quote(string));
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                sb.append(quote(String.valueOf(entry.getKey()))).append(':');
+                write(entry.getValue(), sb);
+            }
+            sb.append('}');
+        } else if (value instanceof List<?> list) {
+            sb.append('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                write(list.get(i), sb);
+            }
+            sb.append(']');
+        } else {
+            throw new IllegalArgumentException("无法写成 JSON 的类型: " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * 转成 JSON 字符串字面量（含两侧引号）
+     */
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("意外的结尾");
+        }
+        char c = text.charAt(pos);
+        return switch (c) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> readString();
+            case 't' -> readLiteral("true", Boolean.TRUE);
+            case 'f' -> readLiteral("false", Boolean.FALSE);
+            case 'n' -> readLiteral("null", null);
+            default -> readNumber();
+        };
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(key, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (pos >= text.length()) {
+                throw error("字符串未结束");
+            }
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> sb.append(escaped);  // \" \\ \/
+            }
+        }
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        boolean integral = true;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            pos++;
+        }
+        if (start == pos) {
+            throw error("无法识别的字符 '" + text.charAt(pos) + "'");
+        }
+        String number = text.substring(start, pos);
+        return integral ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, pos)) {
+            throw error("期望 " + literal);
+        }
+        pos += literal.length();
+        return value;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("期望 '" + c + "'");
+        }
+        pos++;
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : '\0';
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("JSON 解析失败（位置 " + pos + "）: " + message);
+    }
+}
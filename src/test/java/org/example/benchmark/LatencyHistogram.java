@@ -0,0 +1,158 @@
+package org.example.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 对数分桶的延迟直方图（思路同 HdrHistogram）
+ *
+ * 每个 2 的幂区间再线性切成 128 个子桶，相对误差不超过 1/128（约 0.8%）；
+ * 覆盖整个 long 取值范围，内存固定（约 58KB），record 不分配对象
+ *
+ * 非线程安全：每个线程各用一个直方图，结束后用 {@link #add} 合并
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * 记录一个值（纳秒），负数按 0 处理
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * 合并另一个直方图（例如其他线程的）
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * 第 percentile 百分位的值（0~100），返回所在桶的上界，不会低估尾延迟
+     */
+    public long valueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, highestEquivalentValue(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * 毫秒为单位的便捷方法
+     */
+    public double percentileMs(double percentile) {
+        return valueAtPercentile(percentile) / 1_000_000.0;
+    }
+
+    /**
+     * 导出非空桶：每行 "桶下界ns,桶上界ns,计数,累计百分比"
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write("lower_ns,upper_ns,count,cumulative_percent\n");
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            seen += counts[i];
+            out.write(lowestEquivalentValue(i) + "," + highestEquivalentValue(i) + "," + counts[i] + ","
+                    + String.format(Locale.ROOT, "%.4f", seen * 100.0 / totalCount) + "\n");
+        }
+    }
+
+    public void exportCsv(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file)) {
+            writeCsv(out);
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int sub = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return (long) (SUB_BUCKET_COUNT + sub) << shift;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        return lowestEquivalentValue(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 延迟直方图的精度与合并验证（不需要容器）
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void percentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1000);  // 1µs .. 100ms
+        }
+        assertEquals(100_000, histogram.count());
+        assertEquals(50_000_000, histogram.valueAtPercentile(50), 50_000_000 / 128.0);
+        assertEquals(99_000_000, histogram.valueAtPercentile(99), 99_000_000 / 128.0);
+        assertEquals(99_900_000, histogram.valueAtPercentile(99.9), 99_900_000 / 128.0);
+        assertEquals(100_000_000, histogram.valueAtPercentile(100));
+        assertEquals(1000, histogram.min());
+        assertEquals(50_000_500, histogram.mean(), 1e-6);
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int v = 0; v < 200; v++) {
+            histogram.record(v);
+        }
+        assertEquals(99, histogram.valueAtPercentile(50));
+        assertEquals(199, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void mergeEqualsRecordingEverythingInOne() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (long v = 1; v < 50_000; v++) {
+            long value = v * v;
+            (v % 2 == 0 ? a : b).record(value);
+            all.record(value);
+        }
+        a.add(b);
+        assertEquals(all.count(), a.count());
+        assertEquals(all.max(), a.max());
+        assertEquals(all.min(), a.min());
+        for (double p : new double[]{1, 50, 90, 99, 99.9}) {
+            assertEquals(all.valueAtPercentile(p), a.valueAtPercentile(p));
+        }
+    }
+
+    @Test
+    void bucketBoundsCoverEveryValue() {
+        for (long v : new long[]{0, 127, 128, 255, 256, 257, 1_000_000, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.lowestEquivalentValue(index) <= v);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= v);
+        }
+    }
+
+    @Test
+    void exportsNonEmptyBuckets() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.record(1_000);
+        histogram.record(5_000_000);
+        StringWriter out = new StringWriter();
+        histogram.writeCsv(out);
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[2].endsWith(",100.0000"));
+    }
+}
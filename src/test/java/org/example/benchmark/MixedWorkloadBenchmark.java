@@ -0,0 +1,193 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 读写混合负载：读线程执行三种写法之一，写线程同时以固定速率向 all_sales 插入（以及按比例更新）
+ *
+ * JMH 线程组 readWrite 默认 4 个读线程 + 1 个写线程（-tg 8,2 可调整），各自持有连接；
+ * read 的 SampleTime 百分位即读延迟，write 的耗时含限速等待、没有意义，
+ * 写入吞吐量、行锁等待与 history list 长度由 {@link WriteLoadProfiler} 作为次要指标输出
+ *
+ * writesPerSecond 为全部写线程合计的速率，0 表示写线程空转（无写负载的对照组）；
+ * updateRatio 默认只插入，加入更新用 -p updateRatio=0.5（对照组不写入，不必再按 updateRatio 重复）；
+ * 写入改变了数据，trial 结束后丢弃该数据集
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class MixedWorkloadBenchmark extends SalesBenchmarkBase {
+
+    @Param({"LATERAL", "WINDOW", "CORRELATED"})
+    private String strategy;
+
+    @Param({"0", "200", "1000"})
+    private int writesPerSecond;
+
+    @Param({"0"})
+    private double updateRatio;  // 写入中更新已有记录金额的比例，其余为插入
+
+    /**
+     * 不可见索引也会在写入时维护，删掉它们，写开销只取决于当前的 indexConfig
+     */
+    @Override
+    protected void afterDataset() throws SQLException {
+        indexConfig.dropHidden(connection);
+    }
+
+    /**
+     * 读线程的连接
+     */
+    @State(Scope.Thread)
+    public static class Reader {
+
+        Connection connection;
+        String sql;
+
+        @Setup(Level.Trial)
+        public void open(MixedWorkloadBenchmark benchmark) throws SQLException {
+            connection = benchmark.datasetTarget().connect();
+            sql = switch (benchmark.strategy) {
+                case "LATERAL" -> QuickBenchmarkTest.LATERAL_SQL;
+                case "WINDOW" -> QuickBenchmarkTest.WINDOW_SQL;
+                case "CORRELATED" -> QuickBenchmarkTest.CORRELATED_SUBQUERY_SQL;
+                default -> throw new IllegalArgumentException("未知的 strategy: " + benchmark.strategy
+                        + "，可选 LATERAL / WINDOW / CORRELATED");
+            };
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * 写线程的连接与限速状态：按固定间隔排期，落后时不补发积压的写入
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+
+        Connection connection;
+        PreparedStatement insert;
+        PreparedStatement update;
+        SplittableRandom random;
+        long intervalNanos;
+        long nextAt;
+        int salespersonCount;
+        int maxSaleId;
+        double updateRatio;
+
+        @Setup(Level.Trial)
+        public void open(MixedWorkloadBenchmark benchmark, BenchmarkParams params, ThreadParams thread) throws SQLException {
+            connection = benchmark.datasetTarget().connect();
+            insert = connection.prepareStatement(
+                    "INSERT INTO all_sales (salesperson_id, customer_name, amount, sale_date) VALUES (?, ?, ? / 100, CURDATE())");
+            update = connection.prepareStatement("UPDATE all_sales SET amount = ? / 100 WHERE id = ?");
+            random = new SplittableRandom(benchmark.seed + thread.getThreadIndex());
+            int writers = params.getThreadGroups()[1];
+            intervalNanos = benchmark.writesPerSecond == 0 ? 0 : 1_000_000_000L * writers / benchmark.writesPerSecond;
+            nextAt = System.nanoTime();
+            salespersonCount = benchmark.salespersonCount;
+            maxSaleId = benchmark.salesCount;
+            updateRatio = benchmark.updateRatio;
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(4)
+    public int read(Reader reader) throws SQLException {
+        int count = 0;
+        try (Statement stmt = reader.connection.createStatement();
+             ResultSet rs = stmt.executeQuery(reader.sql)) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public int write(Writer writer) throws SQLException {
+        if (writer.intervalNanos == 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (now < writer.nextAt) {
+            LockSupport.parkNanos(writer.nextAt - now);
+        } else if (now - writer.nextAt > TimeUnit.SECONDS.toNanos(1)) {
+            writer.nextAt = now;
+        }
+        writer.nextAt += writer.intervalNanos;
+
+        int affected;
+        long amountCents = writer.random.nextLong(1, 1_000_000);
+        if (writer.random.nextDouble() < writer.updateRatio) {
+            writer.update.setLong(1, amountCents);
+            writer.update.setInt(2, writer.random.nextInt(writer.maxSaleId) + 1);
+            affected = writer.update.executeUpdate();
+        } else {
+            writer.insert.setInt(1, writer.random.nextInt(writer.salespersonCount) + 1);
+            writer.insert.setString(2, "mixed-writer");
+            writer.insert.setLong(3, amountCents);
+            affected = writer.insert.executeUpdate();
+        }
+        WriteLoadProfiler.committed();
+        return affected;
+    }
+
+    /**
+     * 写入改变了数据，后续 trial 需要重新生成
+     */
+    @TearDown(Level.Trial)
+    public void invalidateDataset() throws SQLException {
+        if (writesPerSecond == 0) {
+            return;
+        }
+        new DatasetCache(target, root, loadMode, loadThreads).invalidate(datasetSpec());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(MixedWorkloadBenchmark.class.getSimpleName())
+                .addProfiler(WriteLoadProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-mixed.json")
+                .build();
+
+        BenchmarkLauncher.run(opt);
+
+        stopContainer();
+    }
+}
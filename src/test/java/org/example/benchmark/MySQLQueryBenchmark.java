@@ -2,13 +2,14 @@ package org.example.benchmark;
 
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.results.format.ResultFormatType;
-import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
-import org.testcontainers.containers.MySQLContainer;
-import org.testcontainers.utility.DockerImageName;
 
+import java.io.IOException;
 import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -19,118 +20,36 @@ import java.util.concurrent.TimeUnit;
  */
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
-@State(Scope.Benchmark)
-@Fork(0)  // 禁用fork，在同一JVM运行
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
 @Warmup(iterations = 3, time = 2)
 @Measurement(iterations = 5, time = 3)
-public class MySQLQueryBenchmark {
-
-    private static MySQLContainer<?> mysql;
-    private Connection connection;
-
-    // 测试参数
-    @Param({"100", "500", "1000"})
-    private int salespersonCount;  // 销售人员数量
-
-    @Param({"10000", "50000"})
-    private int salesCount;  // 销售记录数量
-
-    @Setup(Level.Trial)
-    public void setupContainer() throws Exception {
-        if (mysql == null || !mysql.isRunning()) {
-            mysql = new MySQLContainer<>(DockerImageName.parse("mysql:9.0"))
-                    .withDatabaseName("benchmark")
-                    .withUsername("bench")
-                    .withPassword("bench")
-                    .withCommand(
-                            "--character-set-server=utf8mb4",
-                            "--innodb-buffer-pool-size=512M"
-                    );
-            mysql.start();
-            System.out.println("MySQL容器启动成功: " + mysql.getJdbcUrl());
-        }
-
-        connection = DriverManager.getConnection(
-                mysql.getJdbcUrl(),
-                mysql.getUsername(),
-                mysql.getPassword()
-        );
+public class MySQLQueryBenchmark extends SalesBenchmarkBase {
 
-        setupTestData();
+    @Override
+    protected void afterDataset() throws SQLException, IOException {
+        capturePlans();
+        verifyResults();
     }
 
     /**
-     * 创建官方文档示例的表结构
+     * 每个参数组合开始前保存三种写法的执行计划（target/plans），指定基线时检查计划是否变化
      */
-    private void setupTestData() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            // 删除旧表
-            stmt.execute("DROP TABLE IF EXISTS all_sales");
-            stmt.execute("DROP TABLE IF EXISTS salesperson");
-
-            // 创建销售人员表
-            stmt.execute("""
-                CREATE TABLE salesperson (
-                    id INT AUTO_INCREMENT PRIMARY KEY,
-                    name VARCHAR(100) NOT NULL
-                ) ENGINE=InnoDB
-                """);
-
-            // 创建销售记录表
-            stmt.execute("""
-                CREATE TABLE all_sales (
-                    id INT AUTO_INCREMENT PRIMARY KEY,
-                    salesperson_id INT NOT NULL,
-                    customer_name VARCHAR(100) NOT NULL,
-                    amount DECIMAL(10,2) NOT NULL,
-                    sale_date DATE NOT NULL,
-                    INDEX idx_salesperson (salesperson_id),
-                    INDEX idx_salesperson_amount (salesperson_id, amount DESC)
-                ) ENGINE=InnoDB
-                """);
-
-            // 插入销售人员
-            String insertSalesperson = "INSERT INTO salesperson (name) VALUES (?)";
-            try (PreparedStatement pstmt = connection.prepareStatement(insertSalesperson)) {
-                for (int i = 1; i <= salespersonCount; i++) {
-                    pstmt.setString(1, "Salesperson_" + i);
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
-            }
-
-            // 插入销售记录
-            String insertSales = "INSERT INTO all_sales (salesperson_id, customer_name, amount, sale_date) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pstmt = connection.prepareStatement(insertSales)) {
-                connection.setAutoCommit(false);
-                for (int i = 0; i < salesCount; i++) {
-                    int salespersonId = (i % salespersonCount) + 1;
-                    pstmt.setInt(1, salespersonId);
-                    pstmt.setString(2, "Customer_" + (int)(Math.random() * 10000));
-                    pstmt.setDouble(3, Math.random() * 50000);
-                    pstmt.setDate(4, Date.valueOf("2024-01-01"));
-                    pstmt.addBatch();
-                    if (i % 5000 == 0) {
-                        pstmt.executeBatch();
-                    }
-                }
-                pstmt.executeBatch();
-                connection.commit();
-                connection.setAutoCommit(true);
-            }
-
-            stmt.execute("ANALYZE TABLE salesperson");
-            stmt.execute("ANALYZE TABLE all_sales");
-
-            System.out.printf("数据准备完成: %d个销售人员, %d条销售记录%n", salespersonCount, salesCount);
-        }
+    private void capturePlans() throws SQLException, IOException {
+        QueryPlan.captureAndCheck(connection, planName("LATERAL"), QuickBenchmarkTest.LATERAL_SQL);
+        QueryPlan.captureAndCheck(connection, planName("ROW_NUMBER"), QuickBenchmarkTest.WINDOW_SQL);
+        QueryPlan.captureAndCheck(connection, planName("CORRELATED_SUBQUERY"), QuickBenchmarkTest.CORRELATED_SUBQUERY_SQL);
     }
 
-    @TearDown(Level.Trial)
-    public void tearDown() throws Exception {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
-        }
+    /**
+     * 每个参数组合开始前校验四种写法返回相同的结果（{@link ResultDigest}），基准方法本身只计行数
+     */
+    private void verifyResults() throws SQLException {
+        Map<String, ResultDigest.Source> sources = new LinkedHashMap<>();
+        sources.put("LATERAL", tied -> ResultDigest.query(connection, QuickBenchmarkTest.LATERAL_SQL, tied));
+        sources.put("ROW_NUMBER", tied -> ResultDigest.query(connection, QuickBenchmarkTest.WINDOW_SQL, tied));
+        sources.put("CORRELATED_SUBQUERY", tied -> ResultDigest.query(connection, QuickBenchmarkTest.CORRELATED_SUBQUERY_SQL, tied));
+        sources.put("CLIENT_SIDE", tied -> ResultDigest.of(ClientSideTopSales.compute(connection, salespersonCount), tied));
+        ResultDigest.verify(connection, sources);
     }
 
     /**
@@ -231,16 +150,42 @@ public class MySQLQueryBenchmark {
         return count;
     }
 
+    /**
+     * 方法4: 客户端聚合
+     * 流式读取全部销售记录，在 JVM 中求每个销售人员的最大值，再连接销售人员名字（见 {@link ClientSideTopSales}）
+     */
+    @Benchmark
+    public int clientSideQuery() throws SQLException {
+        return ClientSideTopSales.compute(connection, salespersonCount).size();
+    }
+
+    private long serverCostMark;
+
+    @Setup(Level.Invocation)
+    public void markServerCost() throws SQLException {
+        serverCostMark = ServerCostProfiler.mark(connection);
+    }
+
+    /**
+     * 每次调用后采集服务端开销（不计入计时），由 {@link ServerCostProfiler} 汇总成次要指标
+     * 客户端聚合的一次调用包含扫描和读名字两条查询，按 mark 之后的全部查询求和
+     */
+    @TearDown(Level.Invocation)
+    public void captureServerCost() throws SQLException {
+        ServerCostProfiler.capture(connection, serverCostMark);
+    }
+
     public static void main(String[] args) throws Exception {
+        // 透传命令行参数，例如 -p salesCount=100000 覆盖 @Param 默认值
         Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
                 .include(MySQLQueryBenchmark.class.getSimpleName())
-                .resultFormat(ResultFormatType.TEXT)
+                .addProfiler(ServerCostProfiler.class)
+                .resultFormat(ResultFormatType.JSON)  // 次要指标（·server.*）一并写入 jmh-result.json
                 .build();
 
-        new Runner(opt).run();
+        BenchmarkLauncher.run(opt);
 
-        if (mysql != null) {
-            mysql.stop();
-        }
+        stopContainer();
     }
 }
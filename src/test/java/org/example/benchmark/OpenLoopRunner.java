@@ -0,0 +1,134 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环（固定到达率）压测
+ *
+ * 闭环测试里慢查询只会推迟下一次查询的开始时间，排队时间被"吞掉"了（coordinated omission）。
+ * 这里按目标 QPS 预先排好每个查询的计划开始时间，到点即发出，不等前一个查询结束；
+ * 延迟从计划开始时间算起，因此连接池排队、调度落后都会如实计入
+ */
+public class OpenLoopRunner {
+
+    /**
+     * 一次开环压测的结果
+     * corrected*   从计划开始时间算起的延迟（包含排队）
+     * service*     从实际拿到连接开始算起的延迟（即闭环测试通常报告的数字）
+     */
+    record OpenLoopResult(String name, double targetQps, double achievedQps, long operations, long errors,
+                          double correctedP50Ms, double correctedP99Ms, double correctedP999Ms, double correctedMaxMs,
+                          double serviceP50Ms, double serviceP99Ms, LatencyHistogram correctedHistogram) {
+        void print() {
+            System.out.printf("目标 %.1f QPS, 实际完成 %.1f QPS, %d 次查询, 错误 %d%n",
+                    targetQps, achievedQps, operations, errors);
+            System.out.printf("修正后延迟: p50 %.2f ms | p99 %.2f ms | p99.9 %.2f ms | max %.2f ms%n",
+                    correctedP50Ms, correctedP99Ms, correctedP999Ms, correctedMaxMs);
+            System.out.printf("服务时间:   p50 %.2f ms | p99 %.2f ms（不含排队，仅供对比）%n",
+                    serviceP50Ms, serviceP99Ms);
+        }
+    }
+
+    private static final int STRIPES = 16;
+
+    private final JdbcTarget target;
+    private final int connections;
+
+    /**
+     * @param connections 连接池大小，即同时在途的查询上限
+     */
+    public OpenLoopRunner(JdbcTarget target, int connections) {
+        this.target = target;
+        this.connections = connections;
+    }
+
+    public OpenLoopResult run(String name, String sql, double targetQps, int durationSeconds) throws Exception {
+        int total = (int) Math.round(targetQps * durationSeconds);
+        long intervalNanos = (long) (1_000_000_000L / targetQps);
+        // 按查询序号分条记录，降低锁竞争；结束后合并
+        LatencyHistogram[] corrected = new LatencyHistogram[STRIPES];
+        LatencyHistogram[] service = new LatencyHistogram[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            corrected[i] = new LatencyHistogram();
+            service[i] = new LatencyHistogram();
+        }
+        AtomicLong errors = new AtomicLong();
+
+        BlockingQueue<Connection> pool = new ArrayBlockingQueue<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                pool.add(target.connect());
+            }
+
+            long start = System.nanoTime() + 10_000_000L;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < total; i++) {
+                    long intendedStart = start + i * intervalNanos;
+                    long wait;
+                    while ((wait = intendedStart - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    int index = i;
+                    executor.execute(() -> {
+                        try {
+                            Connection conn = pool.take();
+                            long serviceStart = System.nanoTime();
+                            try {
+                                execute(conn, sql);
+                            } catch (SQLException e) {
+                                conn = VirtualThreadLoadDriver.replaceIfBroken(target, conn);
+                                throw e;
+                            } finally {
+                                pool.put(conn);
+                            }
+                            long end = System.nanoTime();
+                            int stripe = index & (STRIPES - 1);
+                            synchronized (corrected[stripe]) {
+                                corrected[stripe].record(end - intendedStart);
+                                service[stripe].record(end - serviceStart);
+                            }
+                        } catch (SQLException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            LatencyHistogram correctedAll = new LatencyHistogram();
+            LatencyHistogram serviceAll = new LatencyHistogram();
+            for (int i = 0; i < STRIPES; i++) {
+                correctedAll.add(corrected[i]);
+                serviceAll.add(service[i]);
+            }
+            return new OpenLoopResult(name, targetQps, correctedAll.count() / elapsedSeconds, correctedAll.count(),
+                    errors.get(), correctedAll.percentileMs(50), correctedAll.percentileMs(99),
+                    correctedAll.percentileMs(99.9), correctedAll.max() / 1_000_000.0,
+                    serviceAll.percentileMs(50), serviceAll.percentileMs(99), correctedAll);
+        } finally {
+            for (Connection conn : pool) {
+                conn.close();
+            }
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                // 只消费结果
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 并行客户端聚合：按主键范围把 all_sales 切成 partitions 段，每段用自己的连接流式扫描，
+ * 在 ForkJoinPool 中并行计算各段的部分最大值（每个任务一个 {@link TopSaleMap}），再两两归并
+ *
+ * 用来回答：在多核数据库主机上，开多个会话并行扫描能否胜过一条服务端窗口函数查询
+ * 连接在构造时建立并一直复用，不计入每次计算的耗时
+ */
+final class ParallelClientTopSales implements AutoCloseable {
+
+    private static final String RANGE_SQL = ClientSideTopSales.SCAN_SQL + " WHERE id BETWEEN ? AND ?";
+
+    private final Connection[] connections;
+    private final ForkJoinPool pool;
+
+    ParallelClientTopSales(JdbcTarget target, int partitions) throws SQLException {
+        connections = new Connection[partitions];
+        for (int i = 0; i < partitions; i++) {
+            connections[i] = target.connect();
+        }
+        pool = new ForkJoinPool(partitions);
+    }
+
+    List<ClientSideTopSales.TopSale> compute(int expectedSalespersons) throws SQLException {
+        long minId;
+        long maxId;
+        try (Statement stmt = connections[0].createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(id), MAX(id) FROM all_sales")) {
+            rs.next();
+            minId = rs.getLong(1);
+            maxId = rs.getLong(2);
+        }
+        TopSaleMap best = pool.invoke(new RangeTask(0, connections.length, minId, maxId, expectedSalespersons));
+        return ClientSideTopSales.join(connections[0], best);
+    }
+
+    /**
+     * 负责第 [from, to) 段：只剩一段时扫描，否则一分为二，各自算完后归并
+     */
+    @SuppressWarnings("serial")  // 只在本进程的 ForkJoinPool 中使用，不会被序列化
+    private final class RangeTask extends RecursiveTask<TopSaleMap> {
+
+        private final int from;
+        private final int to;
+        private final long minId;
+        private final long maxId;
+        private final int expectedSalespersons;
+
+        RangeTask(int from, int to, long minId, long maxId, int expectedSalespersons) {
+            this.from = from;
+            this.to = to;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.expectedSalespersons = expectedSalespersons;
+        }
+
+        @Override
+        protected TopSaleMap compute() {
+            if (to - from == 1) {
+                return scan(from);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(from, middle, minId, maxId, expectedSalespersons);
+            left.fork();
+            TopSaleMap right = new RangeTask(middle, to, minId, maxId, expectedSalespersons).compute();
+            TopSaleMap merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+
+        /**
+         * 第 partition 段的主键范围是把 [minId, maxId] 均分后的第 partition 份
+         */
+        private TopSaleMap scan(int partition) {
+            long span = maxId - minId + 1;
+            long low = minId + span * partition / connections.length;
+            long high = minId + span * (partition + 1) / connections.length - 1;
+            TopSaleMap best = new TopSaleMap(expectedSalespersons);
+            try (PreparedStatement stmt = connections[partition].prepareStatement(RANGE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                stmt.setLong(1, low);
+                stmt.setLong(2, high);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    ClientSideTopSales.accumulate(rs, best);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("扫描主键范围 [" + low + ", " + high + "] 失败", e);
+            }
+            return best;
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        pool.shutdown();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+}
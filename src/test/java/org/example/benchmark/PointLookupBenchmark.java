@@ -0,0 +1,192 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 点查询基准测试：给定一个（或 K 个）销售人员 id，查其最大销售额及对应客户
+ *
+ * 其余基准测试都扫描全部销售人员（报表场景）；线上热点路径是按 id 查单个或少量销售人员。
+ * 每次调用按 groupDistribution 抽取 lookupIds 个 id 作为绑定参数（倾斜分布下热门销售人员被查得更多），
+ * 走 (salesperson_id, amount DESC) 索引；Throughput 看 QPS，SampleTime 看单次查询的延迟分布
+ *
+ * 每个 JMH 线程一个连接，语句使用服务端预处理并缓存，用 -t 调整并发线程数
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class PointLookupBenchmark extends SalesBenchmarkBase {
+
+    @Param({"1", "10"})
+    private int lookupIds;  // IN 列表中的 id 个数 K
+
+    /**
+     * 三种写法的点查询形式，%s 处为 K 个占位符
+     * 窗口函数写法把 id 条件放进派生表，否则要先给全表编号再过滤
+     */
+    enum LookupQuery {
+        LATERAL("""
+                SELECT
+                  salesperson.name,
+                  max_sale.amount,
+                  max_sale.customer_name
+                FROM
+                  salesperson,
+                  LATERAL
+                  (SELECT amount, customer_name
+                    FROM all_sales
+                    WHERE all_sales.salesperson_id = salesperson.id
+                    ORDER BY amount DESC LIMIT 1)
+                  AS max_sale
+                WHERE salesperson.id IN (%s)
+                """),
+        WINDOW("""
+                SELECT
+                    s.name,
+                    ranked.amount,
+                    ranked.customer_name
+                FROM salesperson s
+                JOIN (
+                    SELECT
+                        salesperson_id,
+                        amount,
+                        customer_name,
+                        ROW_NUMBER() OVER (PARTITION BY salesperson_id ORDER BY amount DESC) AS rn
+                    FROM all_sales
+                    WHERE salesperson_id IN (%s)
+                ) ranked ON s.id = ranked.salesperson_id AND ranked.rn = 1
+                """),
+        CORRELATED("""
+                SELECT
+                  salesperson.name,
+                  (SELECT MAX(amount) AS amount
+                    FROM all_sales
+                    WHERE all_sales.salesperson_id = salesperson.id)
+                  AS amount,
+                  (SELECT customer_name
+                    FROM all_sales
+                    WHERE all_sales.salesperson_id = salesperson.id
+                    AND all_sales.amount =
+                         (SELECT MAX(amount) AS amount
+                           FROM all_sales
+                           WHERE all_sales.salesperson_id = salesperson.id))
+                  AS customer_name
+                FROM salesperson
+                WHERE salesperson.id IN (%s)
+                """);
+
+        private final String template;
+
+        LookupQuery(String template) {
+            this.template = template;
+        }
+
+        String sql(int ids) {
+            return template.formatted(String.join(", ", Collections.nCopies(ids, "?")));
+        }
+    }
+
+    /**
+     * 每个线程独占的连接、预处理语句和 id 抽样状态
+     */
+    @State(Scope.Thread)
+    public static class Lookup {
+
+        private Connection connection;
+        private final Map<LookupQuery, PreparedStatement> statements = new EnumMap<>(LookupQuery.class);
+        private GroupDistribution.Sampler sampler;
+        private int[] ids;
+        private long randomState;
+
+        @Setup(Level.Trial)
+        public void open(PointLookupBenchmark benchmark) throws SQLException {
+            connection = benchmark.datasetTarget()
+                    .withProperties("useServerPrepStmts=true&cachePrepStmts=true")
+                    .connect();
+            for (LookupQuery query : LookupQuery.values()) {
+                statements.put(query, connection.prepareStatement(query.sql(benchmark.lookupIds)));
+            }
+            sampler = GroupDistribution.parse(benchmark.groupDistribution).sampler(benchmark.salespersonCount);
+            ids = new int[benchmark.lookupIds];
+            randomState = benchmark.seed ^ Thread.currentThread().threadId();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        /**
+         * 按分组分布抽样下一批 id；uniform 分布的 Sampler 按行号轮询，这里把随机数当作行号以得到随机 id
+         */
+        private void nextIds() {
+            for (int i = 0; i < ids.length; i++) {
+                long random = SalesDataGenerator.mix64(randomState += 0x9e3779b97f4a7c15L);
+                ids[i] = sampler.sample(random >>> 1, random);
+            }
+        }
+
+        int run(LookupQuery query) throws SQLException {
+            nextIds();
+            PreparedStatement stmt = statements.get(query);
+            for (int i = 0; i < ids.length; i++) {
+                stmt.setInt(i + 1, ids[i]);
+            }
+            int count = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    @Benchmark
+    public int lookupLateral(Lookup lookup) throws SQLException {
+        return lookup.run(LookupQuery.LATERAL);
+    }
+
+    @Benchmark
+    public int lookupWindow(Lookup lookup) throws SQLException {
+        return lookup.run(LookupQuery.WINDOW);
+    }
+
+    @Benchmark
+    public int lookupCorrelated(Lookup lookup) throws SQLException {
+        return lookup.run(LookupQuery.CORRELATED);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 例如 -t 16 -p lookupIds=1 -p groupDistribution=zipf:1.2
+        Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(PointLookupBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-point-lookup.json")
+                .build();
+
+        BenchmarkLauncher.run(opt);
+
+        stopContainer();
+    }
+}
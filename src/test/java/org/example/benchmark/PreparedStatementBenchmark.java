@@ -0,0 +1,212 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预处理语句与语句缓存：把解析开销从执行开销中拆出来
+ *
+ * 三种写法都加了一个绑定参数 id <= ?（取 salespersonCount，结果与原查询相同），statementMode 参数：
+ * plain               普通 Statement，SQL 文本每次重新发送、重新解析（参数直接拼进文本）
+ * client-prep         PreparedStatement，useServerPrepStmts=false（驱动默认），驱动在客户端拼好文本再发送
+ * server-prep         useServerPrepStmts=true，每次 prepare 都是一次 COM_STMT_PREPARE 往返
+ * server-prep-cached  再加 cachePrepStmts=true，prepare 命中客户端缓存，服务端语句被复用
+ *
+ * 每种组合测三项：
+ * prepareOnly        只准备语句再关闭；plain 没有准备阶段，不参与（createStatement 只是客户端分配对象，与 prepare 不可比）
+ * executeOnly        trial 开始时准备好的语句反复执行
+ * prepareAndExecute  每次调用都准备 + 执行 + 关闭，即应用代码中最常见的写法
+ *
+ * main 分两次运行：prepareOnly 只跑三种 PreparedStatement 模式，结果写入 jmh-result-prepare-only.json
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class PreparedStatementBenchmark extends SalesBenchmarkBase {
+
+    /**
+     * 带绑定参数的三种写法
+     */
+    public enum BoundQuery {
+        LATERAL("""
+                SELECT
+                  salesperson.name,
+                  max_sale.amount,
+                  max_sale.customer_name
+                FROM
+                  salesperson,
+                  LATERAL
+                  (SELECT amount, customer_name
+                    FROM all_sales
+                    WHERE all_sales.salesperson_id = salesperson.id
+                    ORDER BY amount DESC LIMIT 1)
+                  AS max_sale
+                WHERE salesperson.id <= ?
+                """),
+        WINDOW("""
+                SELECT
+                    s.name,
+                    ranked.amount,
+                    ranked.customer_name
+                FROM salesperson s
+                JOIN (
+                    SELECT
+                        salesperson_id,
+                        amount,
+                        customer_name,
+                        ROW_NUMBER() OVER (PARTITION BY salesperson_id ORDER BY amount DESC) AS rn
+                    FROM all_sales
+                ) ranked ON s.id = ranked.salesperson_id AND ranked.rn = 1
+                WHERE s.id <= ?
+                """),
+        CORRELATED("""
+                SELECT
+                  salesperson.name,
+                  (SELECT MAX(amount) AS amount
+                    FROM all_sales
+                    WHERE all_sales.salesperson_id = salesperson.id)
+                  AS amount,
+                  (SELECT customer_name
+                    FROM all_sales
+                    WHERE all_sales.salesperson_id = salesperson.id
+                    AND all_sales.amount =
+                         (SELECT MAX(amount) AS amount
+                           FROM all_sales
+                           WHERE all_sales.salesperson_id = salesperson.id))
+                  AS customer_name
+                FROM salesperson
+                WHERE salesperson.id <= ?
+                """);
+
+        final String sql;
+
+        BoundQuery(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    @Param({"plain", "client-prep", "server-prep", "server-prep-cached"})
+    private String statementMode;
+
+    @Param({"LATERAL", "WINDOW", "CORRELATED"})
+    private BoundQuery query;
+
+    private Connection statementConnection;
+    private String plainSql;           // plain 模式下参数已拼入的 SQL
+    private Statement plainStatement;  // executeOnly 复用的语句
+    private PreparedStatement preparedStatement;
+
+    @Setup(Level.Trial)
+    public void rejectPlainPrepareOnly(BenchmarkParams params) {
+        if (statementMode.equals("plain") && params.getBenchmark().endsWith(".prepareOnly")) {
+            throw new IllegalArgumentException("plain 模式没有准备阶段，prepareOnly 只支持 client-prep / server-prep / server-prep-cached");
+        }
+    }
+
+    @Override
+    protected void afterDataset() throws SQLException {
+        String properties = switch (statementMode) {
+            case "plain", "client-prep" -> "useServerPrepStmts=false";
+            case "server-prep" -> "useServerPrepStmts=true&cachePrepStmts=false";
+            case "server-prep-cached" ->
+                    "useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048";
+            default -> throw new IllegalArgumentException("未知的 statementMode: " + statementMode);
+        };
+        statementConnection = datasetTarget().withProperties(properties).connect();
+        plainSql = query.sql.replace("?", String.valueOf(salespersonCount));
+        if (statementMode.equals("plain")) {
+            plainStatement = statementConnection.createStatement();
+        } else {
+            preparedStatement = statementConnection.prepareStatement(query.sql);
+            preparedStatement.setInt(1, salespersonCount);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeStatements() throws SQLException {
+        if (plainStatement != null) {
+            plainStatement.close();
+        }
+        if (preparedStatement != null) {
+            preparedStatement.close();
+        }
+        if (statementConnection != null) {
+            statementConnection.close();
+        }
+    }
+
+    private static int consume(ResultSet rs) throws SQLException {
+        int count = 0;
+        try (rs) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public Object prepareOnly() throws SQLException {
+        try (PreparedStatement stmt = statementConnection.prepareStatement(query.sql)) {
+            return stmt;
+        }
+    }
+
+    @Benchmark
+    public int executeOnly() throws SQLException {
+        if (plainStatement != null) {
+            return consume(plainStatement.executeQuery(plainSql));
+        }
+        return consume(preparedStatement.executeQuery());
+    }
+
+    @Benchmark
+    public int prepareAndExecute() throws SQLException {
+        if (plainStatement != null) {
+            try (Statement stmt = statementConnection.createStatement()) {
+                return consume(stmt.executeQuery(plainSql));
+            }
+        }
+        try (PreparedStatement stmt = statementConnection.prepareStatement(query.sql)) {
+            stmt.setInt(1, salespersonCount);
+            return consume(stmt.executeQuery());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Options executeOpt = new OptionsBuilder()
+                .parent(commandLine)
+                .include(PreparedStatementBenchmark.class.getSimpleName() + "\\.(executeOnly|prepareAndExecute)$")
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-prepared.json")
+                .build();
+        BenchmarkLauncher.run(executeOpt);
+
+        ChainedOptionsBuilder prepareOpt = new OptionsBuilder()
+                .parent(commandLine)
+                .include(PreparedStatementBenchmark.class.getSimpleName() + "\\.prepareOnly$")
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-prepare-only.json");
+        if (!commandLine.getParameter("statementMode").hasValue()) {
+            prepareOpt.param("statementMode", "client-prep", "server-prep", "server-prep-cached");
+        }
+        BenchmarkLauncher.run(prepareOpt.build());
+
+        stopContainer();
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询执行计划：EXPLAIN FORMAT=JSON 解析成的计划树 + EXPLAIN ANALYZE 的实际执行信息
+ *
+ * 计划保存在 target/plans 下，每个查询三个文件：
+ * name.json          EXPLAIN FORMAT=JSON 原文
+ * name.analyze.txt   EXPLAIN ANALYZE 原文（实际行数、循环次数、耗时）
+ * name.plan.txt      计划签名：只含表的访问顺序、访问方式、所用索引和 filesort/临时表等标记，
+ *                    不含代价与行数估算，统计信息轻微波动不会导致签名变化
+ *
+ * 指定 -Dbench.planBaseline=目录（例如上次运行后复制出来的 target/plans）时，
+ * 会逐个对比签名，访问方式、连接顺序或索引选择一旦变化就报告出来；
+ * 再加 -Dbench.failOnPlanChange=true 则直接失败
+ */
+record QueryPlan(String name, String json, String analyze, PlanNode root) {
+
+    static final Path PLAN_DIR = Path.of("target", "plans");
+
+    /**
+     * 计划树节点：table 不为 null 时是表访问，否则是 nested_loop / ordering_operation 等操作
+     */
+    record PlanNode(String operation, String table, String accessType, String key, Long rows,
+                    List<String> flags, List<PlanNode> children) {
+
+        /**
+         * @param withEstimates 是否带上行数估算（签名里不带）
+         */
+        void render(StringBuilder out, int depth, boolean withEstimates) {
+            out.append("  ".repeat(depth));
+            if (table != null) {
+                out.append("table ").append(table)
+                        .append(" access=").append(accessType)
+                        .append(" key=").append(key == null ? "-" : key);
+            } else {
+                out.append(operation);
+            }
+            for (String flag : flags) {
+                out.append(' ').append(flag);
+            }
+            if (withEstimates && rows != null) {
+                out.append(" rows≈").append(rows);
+            }
+            out.append('\n');
+            for (PlanNode child : children) {
+                child.render(out, depth + 1, withEstimates);
+            }
+        }
+    }
+
+    /**
+     * 在 connection 上对 sql 执行 EXPLAIN FORMAT=JSON 与 EXPLAIN ANALYZE（后者会真正执行一次查询）
+     */
+    static QueryPlan capture(Connection connection, String name, String sql) throws SQLException {
+        String json = explain(connection, "EXPLAIN FORMAT=JSON " + sql);
+        String analyze = explain(connection, "EXPLAIN ANALYZE " + sql);
+        return new QueryPlan(name, json, analyze, parse(json));
+    }
+
+    /**
+     * 计划文件名：写法 + 数据集（数据集名已包含规模、种子与分布，即完整的参数组合）
+     */
+    static String nameOf(String strategy, DatasetSpec spec) {
+        return strategy + "@" + spec.schemaName();
+    }
+
+    /**
+     * 采集、保存，并与基线（若指定）对比
+     */
+    static QueryPlan captureAndCheck(Connection connection, String name, String sql)
+            throws SQLException, IOException {
+        QueryPlan plan = capture(connection, name, sql);
+        plan.save(PLAN_DIR);
+        String baseline = System.getProperty("bench.planBaseline");
+        if (baseline != null) {
+            List<String> changes = plan.compareTo(Path.of(baseline));
+            for (String change : changes) {
+                System.out.println("⚠ 执行计划变化 [" + name + "] " + change);
+            }
+            if (!changes.isEmpty() && Boolean.getBoolean("bench.failOnPlanChange")) {
+                throw new IllegalStateException("执行计划与基线不一致: " + name);
+            }
+        }
+        return plan;
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    static PlanNode parse(String json) {
+        Object document = Json.parse(json);
+        List<PlanNode> roots = document instanceof Map<?, ?> object ? children(object) : nodes("plan", document);
+        return roots.size() == 1 ? roots.get(0) : operation("plan", Map.of(), roots);
+    }
+
+    /**
+     * 把 JSON 值转成计划节点：含 table_name 的对象是表访问，
+     * 其余对象只有在其下还有表访问时才成为节点（cost_info 之类的纯数据被跳过）；
+     * 数组元素（如 nested_loop 里的 {"table": {...}}）只是包装层，直接展开，数组顺序即连接顺序
+     */
+    private static List<PlanNode> nodes(String name, Object value) {
+        List<PlanNode> result = new ArrayList<>();
+        if (value instanceof List<?> array) {
+            List<PlanNode> elements = new ArrayList<>();
+            for (Object element : array) {
+                if (element instanceof Map<?, ?> object && !object.containsKey("table_name")) {
+                    elements.addAll(children(object));
+                } else {
+                    elements.addAll(nodes(name, element));
+                }
+            }
+            if (!elements.isEmpty()) {
+                result.add(operation(name, Map.of(), elements));
+            }
+        } else if (value instanceof Map<?, ?> object) {
+            List<PlanNode> children = children(object);
+            if (object.containsKey("table_name")) {
+                Object rows = object.get("rows_examined_per_scan");
+                result.add(new PlanNode("table", (String) object.get("table_name"),
+                        String.valueOf(object.get("access_type")), (String) object.get("key"),
+                        rows instanceof Long r ? r : null, flags(object), children));
+            } else if (!children.isEmpty()) {
+                result.add(operation(name, object, children));
+            }
+        }
+        return result;
+    }
+
+    private static List<PlanNode> children(Map<?, ?> object) {
+        List<PlanNode> children = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : object.entrySet()) {
+            children.addAll(nodes((String) entry.getKey(), entry.getValue()));
+        }
+        return children;
+    }
+
+    private static PlanNode operation(String name, Map<?, ?> object, List<PlanNode> children) {
+        return new PlanNode(name, null, null, null, null, flags(object), children);
+    }
+
+    /**
+     * 值为 true 的布尔属性，例如 using_filesort / using_temporary_table / using_index / dependent
+     */
+    private static List<String> flags(Map<?, ?> object) {
+        List<String> flags = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : object.entrySet()) {
+            if (Boolean.TRUE.equals(entry.getValue())) {
+                flags.add((String) entry.getKey());
+            }
+        }
+        return flags;
+    }
+
+    String tree() {
+        StringBuilder out = new StringBuilder();
+        root.render(out, 0, true);
+        return out.toString();
+    }
+
+    List<String> signature() {
+        StringBuilder out = new StringBuilder();
+        root.render(out, 0, false);
+        return out.toString().lines().toList();
+    }
+
+    void save(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(name + ".json"), json);
+        Files.writeString(dir.resolve(name + ".analyze.txt"), analyze);
+        Files.write(dir.resolve(name + ".plan.txt"), signature());
+    }
+
+    /**
+     * 与基线目录中同名的签名对比
+     * 签名行相同但顺序不同说明连接顺序变了；行本身不同说明访问方式或索引变了
+     */
+    List<String> compareTo(Path baselineDir) throws IOException {
+        Path file = baselineDir.resolve(name + ".plan.txt");
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<String> expected = Files.readAllLines(file);
+        List<String> actual = signature();
+        if (expected.equals(actual)) {
+            return List.of();
+        }
+
+        List<String> changes = new ArrayList<>();
+        List<String> removed = new ArrayList<>(expected);
+        actual.forEach(removed::remove);
+        List<String> added = new ArrayList<>(actual);
+        expected.forEach(added::remove);
+        for (String line : removed) {
+            changes.add("基线有、当前无: " + line.strip());
+        }
+        for (String line : added) {
+            changes.add("当前有、基线无: " + line.strip());
+        }
+        if (changes.isEmpty()) {
+            changes.add("访问顺序变化: " + String.join(" -> ", tables(expected))
+                    + " 变为 " + String.join(" -> ", tables(actual)));
+        }
+        return changes;
+    }
+
+    private static List<String> tables(List<String> signature) {
+        return signature.stream()
+                .map(String::strip)
+                .filter(line -> line.startsWith("table "))
+                .map(line -> line.split(" ")[1])
+                .toList();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 执行计划解析与基线对比（不需要容器）
+ */
+public class QueryPlanTest {
+
+    private static final String INDEXED = """
+            {
+              "query_block": {
+                "select_id": 1,
+                "cost_info": {"query_cost": "1204.50"},
+                "nested_loop": [
+                  {"table": {"table_name": "salesperson", "access_type": "ALL",
+                             "rows_examined_per_scan": 500, "cost_info": {"read_cost": "0.25"}}},
+                  {"table": {"table_name": "all_sales", "access_type": "ref",
+                             "key": "idx_salesperson_amount", "rows_examined_per_scan": 100,
+                             "using_index": true, "attached_condition": "(\\"x\\" = 1)"}}
+                ]
+              }
+            }
+            """;
+
+    @Test
+    void parsesTablesInJoinOrder() {
+        QueryPlan.PlanNode root = QueryPlan.parse(INDEXED);
+        assertEquals(List.of(
+                "query_block",
+                "  nested_loop",
+                "    table salesperson access=ALL key=-",
+                "    table all_sales access=ref key=idx_salesperson_amount using_index"), plan(INDEXED).signature());
+        assertEquals(500L, root.children().get(0).children().get(0).rows());
+    }
+
+    @Test
+    void estimatesDoNotChangeSignature(@TempDir Path baseline) throws Exception {
+        plan(INDEXED).save(baseline);
+        String moreRows = INDEXED.replace("\"rows_examined_per_scan\": 100", "\"rows_examined_per_scan\": 130")
+                .replace("1204.50", "1388.00");
+        assertTrue(plan(moreRows).compareTo(baseline).isEmpty());
+    }
+
+    @Test
+    void detectsIndexAndJoinOrderChanges(@TempDir Path baseline) throws Exception {
+        plan(INDEXED).save(baseline);
+
+        String fullScan = INDEXED.replace("\"access_type\": \"ref\"", "\"access_type\": \"ALL\"")
+                .replace("\"key\": \"idx_salesperson_amount\",", "");
+        List<String> changes = plan(fullScan).compareTo(baseline);
+        assertEquals(2, changes.size());
+        assertTrue(changes.get(1).contains("table all_sales access=ALL key=-"));
+
+        String swapped = """
+                {"query_block": {"nested_loop": [
+                  {"table": {"table_name": "all_sales", "access_type": "ref",
+                             "key": "idx_salesperson_amount", "using_index": true}},
+                  {"table": {"table_name": "salesperson", "access_type": "ALL"}}
+                ]}}
+                """;
+        assertEquals(List.of("访问顺序变化: salesperson -> all_sales 变为 all_sales -> salesperson"),
+                plan(swapped).compareTo(baseline));
+    }
+
+    private static QueryPlan plan(String json) {
+        return new QueryPlan("q", json, "", QueryPlan.parse(json));
+    }
+}
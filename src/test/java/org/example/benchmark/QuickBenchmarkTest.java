@@ -6,9 +6,9 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * 快速性能对比测试
@@ -25,7 +25,7 @@ public class QuickBenchmarkTest {
             .withDatabaseName("benchmark")
             .withUsername("bench")
             .withPassword("bench")
-            .withCommand("--character-set-server=utf8mb4", "--innodb-buffer-pool-size=256M");
+            .withCommand("--character-set-server=utf8mb4", "--innodb-buffer-pool-size=256M", "--local-infile=1");
 
     static Connection connection;
 
@@ -33,7 +33,19 @@ public class QuickBenchmarkTest {
     static final int SALESPERSON_COUNT = 500;   // 销售人员数量
     static final int SALES_COUNT = 50_000;      // 销售记录数量
     static final int WARMUP_RUNS = 3;
-    static final int BENCHMARK_RUNS = 10;
+    static final int BENCHMARK_RUNS = Integer.getInteger("bench.runs", 100);  // 样本太少时 p99/p99.9 没有意义
+    static final Path HISTOGRAM_DIR = Path.of("target", "latency");
+
+    // 数据加载方式，可通过 -Dbench.loadMode=BATCH 切换回批量 INSERT
+    static final SalesDataLoader.LoadMode LOAD_MODE =
+            SalesDataLoader.LoadMode.valueOf(System.getProperty("bench.loadMode", "LOAD_DATA"));
+    static final int LOAD_THREADS = 4;
+    static final long SEED = Long.getLong("bench.seed", SalesDataGenerator.DEFAULT_SEED);
+
+    // 开环模式：按固定 QPS 发出查询，延迟从计划开始时间算起
+    static final double OPEN_LOOP_QPS = Double.parseDouble(System.getProperty("bench.openLoop.qps", "50"));
+    static final int OPEN_LOOP_SECONDS = Integer.getInteger("bench.openLoop.seconds", 5);
+    static final int OPEN_LOOP_CONNECTIONS = 8;
 
     @BeforeAll
     static void setup() throws Exception {
@@ -47,6 +59,8 @@ public class QuickBenchmarkTest {
         System.out.println("MySQL版本: " + getMySQLVersion());
         System.out.println("销售人员数: " + SALESPERSON_COUNT);
         System.out.println("销售记录数: " + SALES_COUNT);
+        System.out.println("加载方式: " + LOAD_MODE);
+        System.out.println("数据种子: " + SEED);
 
         setupTestData();
     }
@@ -60,64 +74,9 @@ public class QuickBenchmarkTest {
     }
 
     private static void setupTestData() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute("DROP TABLE IF EXISTS all_sales");
-            stmt.execute("DROP TABLE IF EXISTS salesperson");
-
-            // 官方文档示例表结构
-            stmt.execute("""
-                CREATE TABLE salesperson (
-                    id INT AUTO_INCREMENT PRIMARY KEY,
-                    name VARCHAR(100) NOT NULL
-                ) ENGINE=InnoDB
-                """);
-
-            stmt.execute("""
-                CREATE TABLE all_sales (
-                    id INT AUTO_INCREMENT PRIMARY KEY,
-                    salesperson_id INT NOT NULL,
-                    customer_name VARCHAR(100) NOT NULL,
-                    amount DECIMAL(10,2) NOT NULL,
-                    sale_date DATE NOT NULL,
-                    INDEX idx_salesperson (salesperson_id),
-                    INDEX idx_salesperson_amount (salesperson_id, amount DESC)
-                ) ENGINE=InnoDB
-                """);
-
-            // 插入销售人员
-            String insertSalesperson = "INSERT INTO salesperson (name) VALUES (?)";
-            try (PreparedStatement pstmt = connection.prepareStatement(insertSalesperson)) {
-                for (int i = 1; i <= SALESPERSON_COUNT; i++) {
-                    pstmt.setString(1, "Salesperson_" + i);
-                    pstmt.addBatch();
-                }
-                pstmt.executeBatch();
-            }
-
-            // 插入销售记录
-            String insertSales = "INSERT INTO all_sales (salesperson_id, customer_name, amount, sale_date) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pstmt = connection.prepareStatement(insertSales)) {
-                connection.setAutoCommit(false);
-                for (int i = 0; i < SALES_COUNT; i++) {
-                    int salespersonId = (i % SALESPERSON_COUNT) + 1;
-                    pstmt.setInt(1, salespersonId);
-                    pstmt.setString(2, "Customer_" + (int)(Math.random() * 10000));
-                    pstmt.setDouble(3, Math.random() * 50000);
-                    pstmt.setDate(4, Date.valueOf("2024-01-01"));
-                    pstmt.addBatch();
-                    if (i % 5000 == 0) {
-                        pstmt.executeBatch();
-                    }
-                }
-                pstmt.executeBatch();
-                connection.commit();
-                connection.setAutoCommit(true);
-            }
-
-            stmt.execute("ANALYZE TABLE salesperson");
-            stmt.execute("ANALYZE TABLE all_sales");
-            System.out.println("数据准备完成！\n");
-        }
+        SalesDataLoader loader = new SalesDataLoader(JdbcTarget.of(mysql), LOAD_MODE, LOAD_THREADS);
+        loader.load(new DatasetSpec(SALESPERSON_COUNT, SALES_COUNT, SEED));
+        System.out.println("数据准备完成！\n");
     }
 
     @AfterAll
@@ -193,43 +152,42 @@ public class QuickBenchmarkTest {
             runQuery(sql);
         }
 
-        // 正式测试
-        List<Long> times = new ArrayList<>();
+        // 正式测试：直接记入直方图，测量路径上不装箱
+        LatencyHistogram histogram = new LatencyHistogram();
         for (int i = 0; i < BENCHMARK_RUNS; i++) {
-            times.add(runQuery(sql));
+            histogram.record(runQuery(sql));
         }
 
-        double avgMs = times.stream().mapToLong(Long::longValue).average().orElse(0) / 1_000_000.0;
-        double minMs = times.stream().mapToLong(Long::longValue).min().orElse(0) / 1_000_000.0;
-        double maxMs = times.stream().mapToLong(Long::longValue).max().orElse(0) / 1_000_000.0;
-
-        return new BenchmarkResult(name, avgMs, minMs, maxMs);
+        return BenchmarkResult.of(name, histogram);
     }
 
     @Test
     @Order(1)
-    void testLateral() throws SQLException {
+    void testLateral() throws SQLException, IOException {
         System.out.println("====== LATERAL 派生表（官方推荐）======");
         BenchmarkResult result = benchmark("LATERAL", LATERAL_SQL);
         result.print();
+        result.exportHistogram(HISTOGRAM_DIR);
         printExplain("LATERAL", LATERAL_SQL);
     }
 
     @Test
     @Order(2)
-    void testWindowFunction() throws SQLException {
+    void testWindowFunction() throws SQLException, IOException {
         System.out.println("\n====== 窗口函数 ROW_NUMBER() ======");
         BenchmarkResult result = benchmark("ROW_NUMBER", WINDOW_SQL);
         result.print();
+        result.exportHistogram(HISTOGRAM_DIR);
         printExplain("ROW_NUMBER", WINDOW_SQL);
     }
 
     @Test
     @Order(3)
-    void testCorrelatedSubquery() throws SQLException {
+    void testCorrelatedSubquery() throws SQLException, IOException {
         System.out.println("\n====== 相关子查询（官方反例：低效）======");
         BenchmarkResult result = benchmark("CORRELATED_SUBQUERY", CORRELATED_SUBQUERY_SQL);
         result.print();
+        result.exportHistogram(HISTOGRAM_DIR);
         printExplain("CORRELATED_SUBQUERY", CORRELATED_SUBQUERY_SQL);
     }
 
@@ -246,12 +204,12 @@ public class QuickBenchmarkTest {
         BenchmarkResult window = benchmark("ROW_NUMBER", WINDOW_SQL);
         BenchmarkResult correlated = benchmark("CORRELATED_SUBQUERY", CORRELATED_SUBQUERY_SQL);
 
-        System.out.printf("| %-25s 平均: %8.2f ms  范围: [%.2f - %.2f] ms |%n",
-                "LATERAL (官方推荐)", lateral.avgMs, lateral.minMs, lateral.maxMs);
-        System.out.printf("| %-25s 平均: %8.2f ms  范围: [%.2f - %.2f] ms |%n",
-                "ROW_NUMBER (窗口函数)", window.avgMs, window.minMs, window.maxMs);
-        System.out.printf("| %-25s 平均: %8.2f ms  范围: [%.2f - %.2f] ms |%n",
-                "CORRELATED (官方反例)", correlated.avgMs, correlated.minMs, correlated.maxMs);
+        System.out.printf("| %-25s 平均: %8.2f ms  p99: %8.2f ms  范围: [%.2f - %.2f] ms |%n",
+                "LATERAL (官方推荐)", lateral.avgMs, lateral.p99Ms, lateral.minMs, lateral.maxMs);
+        System.out.printf("| %-25s 平均: %8.2f ms  p99: %8.2f ms  范围: [%.2f - %.2f] ms |%n",
+                "ROW_NUMBER (窗口函数)", window.avgMs, window.p99Ms, window.minMs, window.maxMs);
+        System.out.printf("| %-25s 平均: %8.2f ms  p99: %8.2f ms  范围: [%.2f - %.2f] ms |%n",
+                "CORRELATED (官方反例)", correlated.avgMs, correlated.p99Ms, correlated.minMs, correlated.maxMs);
 
         System.out.println("+" + "-".repeat(70) + "+");
 
@@ -273,29 +231,65 @@ public class QuickBenchmarkTest {
         System.out.println("+" + "=".repeat(70) + "+");
     }
 
+    @Test
+    @Order(5)
+    void openLoop() throws Exception {
+        System.out.printf("%n====== 开环模式: 目标 %.1f QPS, 持续 %d 秒, %d 个连接 ======%n",
+                OPEN_LOOP_QPS, OPEN_LOOP_SECONDS, OPEN_LOOP_CONNECTIONS);
+        OpenLoopRunner runner = new OpenLoopRunner(JdbcTarget.of(mysql), OPEN_LOOP_CONNECTIONS);
+        for (String[] query : new String[][]{
+                {"LATERAL", LATERAL_SQL},
+                {"ROW_NUMBER", WINDOW_SQL},
+                {"CORRELATED_SUBQUERY", CORRELATED_SUBQUERY_SQL}}) {
+            System.out.println("\n[" + query[0] + "]");
+            OpenLoopRunner.OpenLoopResult result = runner.run(query[0], query[1], OPEN_LOOP_QPS, OPEN_LOOP_SECONDS);
+            result.print();
+            result.correctedHistogram().exportCsv(HISTOGRAM_DIR.resolve(query[0] + "-open-loop.csv"));
+        }
+    }
+
     private String centerText(String text, int width) {
         int padding = (width - text.length()) / 2;
         return " ".repeat(Math.max(0, padding)) + text + " ".repeat(Math.max(0, width - padding - text.length()));
     }
 
-    private void printExplain(String name, String sql) throws SQLException {
+    /**
+     * 打印计划树与 EXPLAIN ANALYZE，并保存到 target/plans（指定基线时同时检查计划是否变化）
+     */
+    private void printExplain(String name, String sql) throws SQLException, IOException {
         System.out.println("\n[" + name + " 执行计划]");
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery("EXPLAIN " + sql)) {
-            ResultSetMetaData meta = rs.getMetaData();
-            while (rs.next()) {
-                StringBuilder sb = new StringBuilder();
-                sb.append("  type: ").append(rs.getString("type"));
-                sb.append(" | key: ").append(rs.getString("key"));
-                sb.append(" | rows: ").append(rs.getString("rows"));
-                System.out.println(sb);
-            }
-        }
+        DatasetSpec spec = new DatasetSpec(SALESPERSON_COUNT, SALES_COUNT, SEED);
+        QueryPlan plan = QueryPlan.captureAndCheck(connection, QueryPlan.nameOf(name, spec), sql);
+        System.out.print(plan.tree());
+        System.out.println("[" + name + " EXPLAIN ANALYZE]");
+        System.out.println(plan.analyze());
     }
 
-    record BenchmarkResult(String name, double avgMs, double minMs, double maxMs) {
+    record BenchmarkResult(String name, double avgMs, double minMs, double maxMs,
+                           double p50Ms, double p90Ms, double p99Ms, double p999Ms,
+                           LatencyHistogram histogram) {
+
+        static BenchmarkResult of(String name, LatencyHistogram histogram) {
+            return new BenchmarkResult(name,
+                    histogram.mean() / 1_000_000.0,
+                    histogram.min() / 1_000_000.0,
+                    histogram.max() / 1_000_000.0,
+                    histogram.percentileMs(50), histogram.percentileMs(90),
+                    histogram.percentileMs(99), histogram.percentileMs(99.9),
+                    histogram);
+        }
+
         void print() {
             System.out.printf("平均耗时: %.2f ms | 最小: %.2f ms | 最大: %.2f ms%n", avgMs, minMs, maxMs);
+            System.out.printf("p50: %.2f ms | p90: %.2f ms | p99: %.2f ms | p99.9: %.2f ms (%d 次)%n",
+                    p50Ms, p90Ms, p99Ms, p999Ms, histogram.count());
+        }
+
+        /**
+         * 导出直方图到 dir/<name>.csv
+         */
+        void exportHistogram(Path dir) throws IOException {
+            histogram.exportCsv(dir.resolve(name + ".csv"));
         }
     }
 }
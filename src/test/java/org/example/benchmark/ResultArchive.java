@@ -0,0 +1,169 @@
+package org.example.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH 结果归档：每次运行的结果文件追加为 bench-history/results.jsonl 的一行，
+ * 附带 git 提交、MySQL 版本（取自 {@link BenchmarkLauncher#ENV_FILE}）、JVM 与机器指纹，供 {@link ResultComparator} 对比
+ *
+ * {@link BenchmarkLauncher} 在 JSON 格式的运行结束后自动归档（-Dbench.archive=false 关闭）；
+ * 也可以手动归档已有的结果文件：
+ * mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.ResultArchive -Dexec.args="jmh-result.json"
+ */
+public final class ResultArchive {
+
+    static final Path ARCHIVE = Path.of("bench-history", "results.jsonl");
+
+    private ResultArchive() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] files = args.length == 0 ? new String[]{"jmh-result.json"} : args;
+        for (String file : files) {
+            append(Path.of(file), ARCHIVE);
+        }
+    }
+
+    /**
+     * 把一份 JMH JSON 结果连同运行环境追加到归档
+     */
+    static void append(Path resultFile, Path archive) throws IOException {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", Instant.now().toString());
+        entry.put("commit", gitCommit());
+        Properties env = new Properties();
+        if (Files.exists(BenchmarkLauncher.ENV_FILE)) {
+            try (Reader in = Files.newBufferedReader(BenchmarkLauncher.ENV_FILE)) {
+                env.load(in);
+            }
+        }
+        entry.put("mysqlVersion", env.getProperty("mysql.version", "unknown"));
+        entry.put("mysqlImage", env.getProperty("mysql.image", "unknown"));
+        entry.put("bufferPoolSize", env.getProperty("mysql.innodb_buffer_pool_size", "unknown"));
+        entry.put("bufferPoolChunkSize", env.getProperty("mysql.innodb_buffer_pool_chunk_size", "unknown"));
+        entry.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.runtime.version"));
+        Map<String, Object> machine = machine();
+        entry.put("machine", machine);
+        entry.put("fingerprint", fingerprint(machine));
+        entry.put("resultFile", resultFile.getFileName().toString());
+        entry.put("results", Json.parse(Files.readString(resultFile)));
+
+        Files.createDirectories(archive.toAbsolutePath().getParent());
+        Files.writeString(archive, Json.write(entry) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.out.printf("已归档 %s -> %s (commit %s, MySQL %s)%n",
+                resultFile, archive, entry.get("commit"), entry.get("mysqlVersion"));
+    }
+
+    /**
+     * 读取归档的全部记录，按追加顺序
+     */
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> read(Path archive) throws IOException {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(archive, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                entries.add((Map<String, Object>) Json.parse(line));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 当前 HEAD，工作区有未提交的修改时加 "-dirty"；不在 git 仓库中时为 "unknown"
+     */
+    private static String gitCommit() {
+        String head = git("rev-parse", "HEAD");
+        if (head == null || head.isEmpty()) {
+            return "unknown";
+        }
+        String status = git("status", "--porcelain", "--untracked-files=no");
+        return status == null || status.isEmpty() ? head : head + "-dirty";
+    }
+
+    private static String git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (!process.waitFor(10, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                return null;
+            }
+            return output;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static Map<String, Object> machine() {
+        Map<String, Object> machine = new LinkedHashMap<>();
+        machine.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        machine.put("arch", System.getProperty("os.arch"));
+        machine.put("cpus", (long) Runtime.getRuntime().availableProcessors());
+        machine.put("cpuModel", cpuModel());
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean hotspot) {
+            machine.put("memoryMb", hotspot.getTotalMemorySize() / (1024 * 1024));
+        }
+        try {
+            machine.put("host", InetAddress.getLocalHost().getHostName());
+        } catch (IOException e) {
+            machine.put("host", "unknown");
+        }
+        return machine;
+    }
+
+    private static String cpuModel() {
+        Path cpuinfo = Path.of("/proc/cpuinfo");
+        if (Files.isReadable(cpuinfo)) {
+            try {
+                for (String line : Files.readAllLines(cpuinfo)) {
+                    if (line.startsWith("model name")) {
+                        return line.substring(line.indexOf(':') + 1).trim();
+                    }
+                }
+            } catch (IOException e) {
+                // 读不到时退回环境变量
+            }
+        }
+        String identifier = System.getenv("PROCESSOR_IDENTIFIER");  // Windows
+        return identifier != null ? identifier : "unknown";
+    }
+
+    /**
+     * 硬件指纹：只取影响性能的部分（不含主机名），同型号机器之间的结果可以互相比较
+     */
+    private static String fingerprint(Map<String, Object> machine) {
+        String hardware = machine.get("os") + "|" + machine.get("arch") + "|" + machine.get("cpus") + "|"
+                + machine.get("cpuModel") + "|" + machine.get("memoryMb");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(hardware.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
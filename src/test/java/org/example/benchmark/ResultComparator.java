@@ -0,0 +1,234 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.MultisetStatistics;
+import org.openjdk.jmh.util.Statistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 对比 {@link ResultArchive} 中的两次运行，找出退化的基准方法 + 参数组合；有退化时以非零退出码结束，可用于 CI 把关
+ *
+ * 判定退化需同时满足：
+ * 1. 两次的原始数据（rawData，SampleTime 为 rawDataHistogram）在给定置信度下显著不同（JMH 自带的 Welch t 检验）
+ * 2. 朝变差的方向（吞吐量变小 / 耗时变大）变化超过阈值
+ * 没有原始数据时退回用 score ± scoreError 区间是否重叠判断显著性
+ *
+ * 运行：mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.ResultComparator -Dexec.args="mysql=8.4,file=jmh-result.json mysql=9.0,file=jmh-result.json"
+ * 选择器：previous（默认基线，对比对象之前最近一次同一结果文件的运行）、latest（默认对比对象）、#序号，
+ * 或 commit= / mysql= / jvm= / machine= / file= 前缀条件（逗号连接表示同时满足），取满足条件的最后一条；
+ * -Dbench.compare.threshold=0.05 -Dbench.compare.confidence=0.99
+ */
+public final class ResultComparator {
+
+    /**
+     * 一个基准方法 + 参数组合的对比
+     *
+     * @param change 朝变差方向的相对变化，正数表示变差
+     */
+    record Comparison(String key, String unit, double baseline, double candidate, double change,
+                      boolean significant, boolean regressed) {
+    }
+
+    private ResultComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        double threshold = Double.parseDouble(System.getProperty("bench.compare.threshold", "0.05"));
+        double confidence = Double.parseDouble(System.getProperty("bench.compare.confidence", "0.99"));
+        List<Map<String, Object>> entries = ResultArchive.read(ResultArchive.ARCHIVE);
+
+        Map<String, Object> candidate = select(entries, args.length > 1 ? args[1] : "latest");
+        Map<String, Object> baseline = args.length == 0 || args[0].equals("previous")
+                ? previousOf(entries, candidate)
+                : select(entries, args[0]);
+        if (baseline == candidate) {
+            System.err.println("基线与对比对象是同一条记录");
+            System.exit(2);
+        }
+        System.out.printf("基线: %s%n对比: %s%n", describe(baseline), describe(candidate));
+        if (!baseline.get("fingerprint").equals(candidate.get("fingerprint"))) {
+            System.out.println("⚠ 两次运行的机器指纹不同，差异可能来自硬件而非代码或 MySQL");
+        }
+        for (String setting : List.of("bufferPoolSize", "bufferPoolChunkSize")) {
+            // 较早的归档没有记录 chunk 大小，也按不同处理
+            if (!String.valueOf(baseline.get(setting)).equals(String.valueOf(candidate.get(setting)))) {
+                System.out.printf("⚠ 两次运行的 %s 不同（%s / %s），差异可能来自 MySQL 配置%n",
+                        setting, baseline.get(setting), candidate.get(setting));
+            }
+        }
+
+        List<Comparison> comparisons = compare((List<?>) baseline.get("results"), (List<?>) candidate.get("results"),
+                threshold, confidence);
+        int regressions = 0;
+        System.out.printf("%n%-70s %14s %14s %9s  %s%n", "基准 [模式] 参数", "基线", "对比", "变差", "结论");
+        for (Comparison c : comparisons) {
+            String verdict = c.regressed() ? "✗ 退化" : c.significant() ? (c.change() < 0 ? "改善" : "显著，未超阈值") : "无显著差异";
+            System.out.printf("%-70s %14.3f %14.3f %8.1f%%  %s%n", c.key(), c.baseline(), c.candidate(),
+                    c.change() * 100, verdict);
+            if (c.regressed()) {
+                regressions++;
+            }
+        }
+        System.out.printf("%n%d 个组合中 %d 个退化（阈值 %.1f%%，置信度 %.3f）%n",
+                comparisons.size(), regressions, threshold * 100, confidence);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 按基准方法 + 模式 + 参数配对两次运行的结果，只比较两边都有的组合
+     */
+    static List<Comparison> compare(List<?> baseline, List<?> candidate, double threshold, double confidence) {
+        Map<String, Map<?, ?>> baselineByKey = byKey(baseline);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, Map<?, ?>> entry : byKey(candidate).entrySet()) {
+            Map<?, ?> before = baselineByKey.get(entry.getKey());
+            if (before != null) {
+                comparisons.add(compare(entry.getKey(), before, entry.getValue(), threshold, confidence));
+            }
+        }
+        return comparisons;
+    }
+
+    private static Comparison compare(String key, Map<?, ?> before, Map<?, ?> after, double threshold, double confidence) {
+        Map<?, ?> beforeMetric = (Map<?, ?>) before.get("primaryMetric");
+        Map<?, ?> afterMetric = (Map<?, ?>) after.get("primaryMetric");
+        double baselineScore = number(beforeMetric.get("score"));
+        double candidateScore = number(afterMetric.get("score"));
+        boolean higherIsBetter = "thrpt".equals(after.get("mode"));
+        double change = (higherIsBetter ? baselineScore - candidateScore : candidateScore - baselineScore) / baselineScore;
+
+        Statistics beforeStats = statistics(beforeMetric);
+        Statistics afterStats = statistics(afterMetric);
+        boolean significant;
+        if (beforeStats != null && afterStats != null && beforeStats.getN() > 1 && afterStats.getN() > 1) {
+            significant = beforeStats.isDifferent(afterStats, confidence);
+        } else {
+            double beforeError = number(beforeMetric.get("scoreError"));
+            double afterError = number(afterMetric.get("scoreError"));
+            significant = Double.isNaN(beforeError) || Double.isNaN(afterError)
+                    ? baselineScore != candidateScore
+                    : Math.abs(candidateScore - baselineScore) > beforeError + afterError;
+        }
+        return new Comparison(key, String.valueOf(afterMetric.get("scoreUnit")), baselineScore, candidateScore, change,
+                significant, significant && change > threshold);
+    }
+
+    /**
+     * rawData: [fork][iteration] -> 值；rawDataHistogram: [fork][iteration][[值, 次数], ...]
+     */
+    static Statistics statistics(Map<?, ?> metric) {
+        if (metric.get("rawData") instanceof List<?> forks) {
+            ListStatistics stats = new ListStatistics();
+            for (Object fork : forks) {
+                for (Object value : (List<?>) fork) {
+                    stats.addValue(number(value));
+                }
+            }
+            return stats;
+        }
+        if (metric.get("rawDataHistogram") instanceof List<?> forks) {
+            MultisetStatistics stats = new MultisetStatistics();
+            for (Object fork : forks) {
+                for (Object iteration : (List<?>) fork) {
+                    for (Object bucket : (List<?>) iteration) {
+                        List<?> pair = (List<?>) bucket;
+                        stats.addValue(number(pair.get(0)), (long) number(pair.get(1)));
+                    }
+                }
+            }
+            return stats;
+        }
+        return null;
+    }
+
+    private static Map<String, Map<?, ?>> byKey(List<?> results) {
+        Map<String, Map<?, ?>> byKey = new LinkedHashMap<>();
+        for (Object item : results) {
+            Map<?, ?> result = (Map<?, ?>) item;
+            StringBuilder key = new StringBuilder()
+                    .append(result.get("benchmark")).append(" [").append(result.get("mode")).append(']');
+            if (result.get("params") instanceof Map<?, ?> params) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.forEach((k, v) -> sorted.put(String.valueOf(k), String.valueOf(v)));
+                key.append(' ').append(sorted);
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    /**
+     * JMH 把 NaN 等写成字符串
+     */
+    private static double number(Object value) {
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        return value == null ? Double.NaN : Double.parseDouble(value.toString());
+    }
+
+    /**
+     * latest、#序号，或用逗号连接的 字段=前缀 条件（全部满足，取最后一条）
+     */
+    static Map<String, Object> select(List<Map<String, Object>> entries, String selector) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("归档为空: " + ResultArchive.ARCHIVE);
+        }
+        if (selector.equals("latest")) {
+            return entries.get(entries.size() - 1);
+        }
+        if (selector.startsWith("#")) {
+            return entries.get(Integer.parseInt(selector.substring(1)));
+        }
+        Map<String, String> conditions = new LinkedHashMap<>();
+        for (String condition : selector.split(",")) {
+            int eq = condition.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("无法识别的选择器: " + selector);
+            }
+            String field = switch (condition.substring(0, eq).trim()) {
+                case "commit" -> "commit";
+                case "mysql" -> "mysqlVersion";
+                case "jvm" -> "jvm";
+                case "machine" -> "fingerprint";
+                case "file" -> "resultFile";
+                default -> throw new IllegalArgumentException("无法识别的选择器: " + selector);
+            };
+            conditions.put(field, condition.substring(eq + 1).trim());
+        }
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Map<String, Object> entry = entries.get(i);
+            if (conditions.entrySet().stream()
+                    .allMatch(c -> String.valueOf(entry.get(c.getKey())).startsWith(c.getValue()))) {
+                return entry;
+            }
+        }
+        throw new IllegalArgumentException("归档中没有满足 " + selector + " 的记录");
+    }
+
+    /**
+     * candidate 之前最近一条同一结果文件（同一个基准测试类）的记录
+     */
+    static Map<String, Object> previousOf(List<Map<String, Object>> entries, Map<String, Object> candidate) {
+        for (int i = entries.indexOf(candidate) - 1; i >= 0; i--) {
+            if (entries.get(i).get("resultFile").equals(candidate.get("resultFile"))) {
+                return entries.get(i);
+            }
+        }
+        throw new IllegalArgumentException("归档中没有 " + candidate.get("resultFile") + " 更早的记录");
+    }
+
+    private static String describe(Map<String, Object> entry) {
+        return String.format("%s commit=%s MySQL=%s JVM=%s machine=%s (%s)", entry.get("timestamp"),
+                entry.get("commit"), entry.get("mysqlVersion"), entry.get("jvm"), entry.get("fingerprint"),
+                entry.get("resultFile"));
+    }
+}
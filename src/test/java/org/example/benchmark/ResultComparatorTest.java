@@ -0,0 +1,91 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 两次运行结果的退化判定（不需要容器）
+ */
+public class ResultComparatorTest {
+
+    private static List<?> results(String mode, String rawData) {
+        return (List<?>) Json.parse("""
+            [{"benchmark": "org.example.benchmark.MySQLQueryBenchmark.lateralQuery", "mode": "%s",
+              "params": {"salesCount": "50000", "salespersonCount": "500"},
+              "primaryMetric": {"score": %s, "scoreError": 0.1, "scoreUnit": "ms/op", "rawData": %s}}]
+            """.formatted(mode, mean(rawData), rawData));
+    }
+
+    private static double mean(String rawData) {
+        List<?> forks = (List<?>) Json.parse(rawData);
+        double sum = 0;
+        int n = 0;
+        for (Object fork : forks) {
+            for (Object value : (List<?>) fork) {
+                sum += ((Number) value).doubleValue();
+                n++;
+            }
+        }
+        return sum / n;
+    }
+
+    @Test
+    void flagsSignificantSlowdownBeyondThreshold() {
+        List<ResultComparator.Comparison> comparisons = ResultComparator.compare(
+                results("avgt", "[[10.0, 10.1, 9.9, 10.0, 10.05], [10.0, 9.95, 10.1, 10.0, 9.9]]"),
+                results("avgt", "[[12.0, 12.1, 11.9, 12.0, 12.05], [12.0, 11.95, 12.1, 12.0, 11.9]]"),
+                0.05, 0.99);
+        assertEquals(1, comparisons.size());
+        ResultComparator.Comparison c = comparisons.get(0);
+        assertTrue(c.significant());
+        assertTrue(c.regressed());
+        assertEquals(0.2, c.change(), 1e-9);
+    }
+
+    @Test
+    void noiseAndSmallChangesAreNotRegressions() {
+        ResultComparator.Comparison noisy = ResultComparator.compare(
+                results("avgt", "[[8.0, 12.0, 9.0, 11.0, 10.0]]"),
+                results("avgt", "[[9.0, 13.0, 10.0, 12.0, 8.0]]"),
+                0.05, 0.99).get(0);
+        assertFalse(noisy.significant());
+        assertFalse(noisy.regressed());
+
+        ResultComparator.Comparison small = ResultComparator.compare(
+                results("avgt", "[[10.0, 10.01, 9.99, 10.0, 10.0]]"),
+                results("avgt", "[[10.2, 10.21, 10.19, 10.2, 10.2]]"),
+                0.05, 0.99).get(0);
+        assertTrue(small.significant());
+        assertFalse(small.regressed());
+    }
+
+    @Test
+    void lowerThroughputIsARegression() {
+        ResultComparator.Comparison c = ResultComparator.compare(
+                results("thrpt", "[[100.0, 101.0, 99.0, 100.0, 100.5]]"),
+                results("thrpt", "[[80.0, 81.0, 79.0, 80.0, 80.5]]"),
+                0.05, 0.99).get(0);
+        assertTrue(c.regressed());
+        assertTrue(c.change() > 0.19);
+
+        ResultComparator.Comparison faster = ResultComparator.compare(
+                results("thrpt", "[[80.0, 81.0, 79.0, 80.0, 80.5]]"),
+                results("thrpt", "[[100.0, 101.0, 99.0, 100.0, 100.5]]"),
+                0.05, 0.99).get(0);
+        assertTrue(faster.significant());
+        assertFalse(faster.regressed());
+    }
+
+    @Test
+    void sampleTimeUsesHistogram() {
+        Map<?, ?> metric = (Map<?, ?>) Json.parse("""
+            {"rawDataHistogram": [[[[1.0, 3], [2.0, 1]], [[1.0, 2]]]]}
+            """);
+        assertEquals(6, ResultComparator.statistics(metric).getN());
+        assertEquals(7.0 / 6, ResultComparator.statistics(metric).getMean(), 1e-9);
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 各写法结果的一致性校验：边读边算与行顺序无关的摘要（每行一个 64 位哈希，累计 XOR 与和），不物化结果集
+ *
+ * 金额并列最大值时各写法选中的客户可能不同（LATERAL / 窗口函数任取一行，相关子查询直接报
+ * "Subquery returns more than 1 row"），因此先查出并列的销售人员，这些行只对 (销售人员, 金额) 求哈希；
+ * 金额为 NULL 的行（相关子查询对没有销售记录的销售人员也返回一行）不计入
+ */
+final class ResultDigest {
+
+    /**
+     * MySQL 错误码 1242：Subquery returns more than 1 row
+     */
+    static final int SUBQUERY_MULTIPLE_ROWS = 1242;
+
+    private static final String TIED_SQL = """
+        SELECT s.name
+        FROM salesperson s
+        JOIN (SELECT salesperson_id, MAX(amount) AS amount FROM all_sales GROUP BY salesperson_id) m
+          ON m.salesperson_id = s.id
+        JOIN all_sales a ON a.salesperson_id = m.salesperson_id AND a.amount = m.amount
+        GROUP BY s.id, s.name
+        HAVING COUNT(*) > 1
+        """;
+
+    /**
+     * 一种写法结果的摘要
+     */
+    record Digest(long rows, long xor, long sum) {
+
+        @Override
+        public String toString() {
+            return String.format("%d 行 xor=%016x sum=%016x", rows, xor, sum);
+        }
+    }
+
+    /**
+     * 某种写法的结果来源
+     */
+    interface Source {
+        Digest digest(Set<String> tied) throws SQLException;
+    }
+
+    /**
+     * 逐行累加，add 不分配对象
+     */
+    static final class Accumulator {
+
+        private final Set<String> tied;
+        private long rows;
+        private long xor;
+        private long sum;
+
+        Accumulator(Set<String> tied) {
+            this.tied = tied;
+        }
+
+        void add(String salespersonName, long amountCents, String customerName) {
+            long h = hash(salespersonName) ^ SalesDataGenerator.mix64(amountCents + 0x9e3779b97f4a7c15L);
+            if (!tied.contains(salespersonName)) {
+                h ^= Long.rotateLeft(hash(customerName), 17);
+            }
+            h = SalesDataGenerator.mix64(h);
+            rows++;
+            xor ^= h;
+            sum += h;
+        }
+
+        Digest digest() {
+            return new Digest(rows, xor, sum);
+        }
+    }
+
+    private ResultDigest() {
+    }
+
+    /**
+     * 64 位 FNV-1a
+     */
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * 金额并列最大值的销售人员（名字）
+     */
+    static Set<String> tiedSalespersons(Connection connection) throws SQLException {
+        Set<String> tied = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(TIED_SQL)) {
+            while (rs.next()) {
+                tied.add(rs.getString(1));
+            }
+        }
+        return tied;
+    }
+
+    /**
+     * 流式读取 sql 的结果（列顺序：销售人员名、金额、客户名）并计算摘要
+     */
+    static Digest query(Connection connection, String sql, Set<String> tied) throws SQLException {
+        Accumulator accumulator = new Accumulator(tied);
+        try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    BigDecimal amount = rs.getBigDecimal(2);
+                    if (amount != null) {
+                        accumulator.add(rs.getString(1), amount.movePointRight(2).longValueExact(), rs.getString(3));
+                    }
+                }
+            }
+        }
+        return accumulator.digest();
+    }
+
+    static Digest of(Collection<ClientSideTopSales.TopSale> rows, Set<String> tied) {
+        Accumulator accumulator = new Accumulator(tied);
+        for (ClientSideTopSales.TopSale row : rows) {
+            accumulator.add(row.salespersonName(), row.amountCents(), row.customerName());
+        }
+        return accumulator.digest();
+    }
+
+    /**
+     * 计算每种写法的摘要并与第一种比较，不一致时抛出 IllegalStateException
+     * 存在并列时，相关子查询报 1242 属于预期行为，跳过该写法
+     */
+    static void verify(Connection connection, Map<String, Source> sources) throws SQLException {
+        Set<String> tied = tiedSalespersons(connection);
+        String referenceName = null;
+        Digest reference = null;
+        for (Map.Entry<String, Source> entry : sources.entrySet()) {
+            Digest digest;
+            try {
+                digest = entry.getValue().digest(tied);
+            } catch (SQLException e) {
+                if (e.getErrorCode() == SUBQUERY_MULTIPLE_ROWS && !tied.isEmpty()) {
+                    System.out.printf("%s 在金额并列时报错（%s），不参与校验%n", entry.getKey(), e.getMessage());
+                    continue;
+                }
+                throw e;
+            }
+            if (reference == null) {
+                referenceName = entry.getKey();
+                reference = digest;
+            } else if (!reference.equals(digest)) {
+                throw new IllegalStateException(String.format("结果不一致: %s [%s], %s [%s]",
+                        referenceName, reference, entry.getKey(), digest));
+            }
+        }
+        System.out.printf("结果校验通过: %s（%d 个销售人员金额并列，只比较金额）%n", reference, tied.size());
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 结果摘要（不需要容器）
+ */
+public class ResultDigestTest {
+
+    @Test
+    void independentOfRowOrder() {
+        List<ClientSideTopSales.TopSale> rows = List.of(
+                new ClientSideTopSales.TopSale("张三", 12_345, "客户1"),
+                new ClientSideTopSales.TopSale("李四", 99_900, "客户2"),
+                new ClientSideTopSales.TopSale("王五", 500, "客户3"));
+        ResultDigest.Digest forward = ResultDigest.of(rows, Set.of());
+        ResultDigest.Digest backward = ResultDigest.of(rows.reversed(), Set.of());
+        assertEquals(forward, backward);
+        assertEquals(3, forward.rows());
+    }
+
+    @Test
+    void detectsWrongAmountCustomerAndDuplicates() {
+        List<ClientSideTopSales.TopSale> rows = List.of(
+                new ClientSideTopSales.TopSale("张三", 12_345, "客户1"),
+                new ClientSideTopSales.TopSale("李四", 99_900, "客户2"));
+        ResultDigest.Digest expected = ResultDigest.of(rows, Set.of());
+        assertNotEquals(expected, ResultDigest.of(List.of(rows.get(0),
+                new ClientSideTopSales.TopSale("李四", 99_901, "客户2")), Set.of()));
+        assertNotEquals(expected, ResultDigest.of(List.of(rows.get(0),
+                new ClientSideTopSales.TopSale("李四", 99_900, "客户9")), Set.of()));
+        // 同一行出现两次：XOR 抵消，但行数与和仍能发现
+        ResultDigest.Digest duplicated = ResultDigest.of(List.of(rows.get(0), rows.get(1), rows.get(1)), Set.of());
+        assertEquals(expected.xor(), duplicated.xor() ^ xorOf(rows.get(1)));
+        assertNotEquals(expected, duplicated);
+    }
+
+    @Test
+    void tiedSalespersonsCompareOnlyAmount() {
+        Set<String> tied = Set.of("李四");
+        ResultDigest.Digest first = ResultDigest.of(List.of(
+                new ClientSideTopSales.TopSale("张三", 100, "客户1"),
+                new ClientSideTopSales.TopSale("李四", 200, "客户2")), tied);
+        ResultDigest.Digest second = ResultDigest.of(List.of(
+                new ClientSideTopSales.TopSale("张三", 100, "客户1"),
+                new ClientSideTopSales.TopSale("李四", 200, "客户3")), tied);
+        assertEquals(first, second);
+        assertNotEquals(first, ResultDigest.of(List.of(
+                new ClientSideTopSales.TopSale("张三", 100, "客户4"),
+                new ClientSideTopSales.TopSale("李四", 200, "客户2")), tied));
+    }
+
+    private static long xorOf(ClientSideTopSales.TopSale row) {
+        return ResultDigest.of(List.of(row), Set.of()).xor();
+    }
+}
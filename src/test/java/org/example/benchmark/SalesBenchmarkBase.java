@@ -0,0 +1,112 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 各 JMH 基准测试共用的容器与数据集准备逻辑
+ * 子类只需编写 @Benchmark 方法，数据参数（规模、分布、种子）在这里统一声明
+ */
+@State(Scope.Benchmark)
+public abstract class SalesBenchmarkBase {
+
+    protected static JdbcTarget target;  // 基准账号
+    protected static JdbcTarget root;    // root，建库、授权、修改全局变量用
+    protected Connection connection;
+    protected String schema;  // 当前数据集所在的 schema
+
+    // 测试参数
+    @Param({"100", "500", "1000"})
+    protected int salespersonCount;  // 销售人员数量
+
+    @Param({"10000", "50000"})
+    protected int salesCount;  // 销售记录数量
+
+    @Param({"20240101"})
+    protected long seed;  // 数据生成种子，相同种子生成完全相同的数据
+
+    @Param({"uniform"})
+    protected String groupDistribution;  // 分组大小分布：uniform / zipf:1.2 / hotspot:0.1:0.9 / giant:0.5
+
+    @Param({"uniform"})
+    protected String amountDistribution;  // 金额分布：uniform / lognormal:7:1.5 / ties:100
+
+    @Param({"DEFAULT"})
+    protected IndexConfig indexConfig;  // 二级索引组合：DEFAULT / NONE / SP / SP_AMOUNT / COVERING
+
+    @Param({"4"})
+    protected int loadThreads;  // 数据加载并行度（不影响查询，只影响准备时间）
+
+    @Param({"LOAD_DATA"})
+    protected SalesDataLoader.LoadMode loadMode;  // 数据写入方式：BATCH / LOAD_DATA
+
+    @Setup(Level.Trial)
+    public void setupContainer() throws Exception {
+        startContainer();
+
+        connection = target.connect();
+
+        setupTestData();
+
+        afterDataset();
+    }
+
+    /**
+     * 数据集就绪后的准备工作（执行计划、结果校验、额外连接等），由子类覆盖
+     * JMH 不保证父类的 @Setup 先于子类的 @Setup 执行，子类依赖 connection / schema / root 的准备必须放在这里
+     */
+    protected void afterDataset() throws Exception {
+    }
+
+    /**
+     * fork 中使用 {@link BenchmarkLauncher} 传入的连接坐标，否则在本 JVM 内启动容器
+     */
+    static void startContainer() {
+        target = BenchmarkContainer.target();
+        root = BenchmarkContainer.rootTarget();
+    }
+
+    static void stopContainer() {
+        BenchmarkContainer.stop();
+    }
+
+    /**
+     * 准备官方文档示例的表结构和数据
+     * 同一组参数的数据集只物化一次（独立 schema），之后的 trial 直接切换过去
+     */
+    private void setupTestData() throws SQLException {
+        DatasetCache cache = new DatasetCache(target, root, loadMode, loadThreads);
+        schema = cache.acquire(datasetSpec());
+        connection.setCatalog(schema);
+        indexConfig.apply(connection);
+        System.out.printf("数据准备完成: %d个销售人员, %d条销售记录 (schema: %s)%n", salespersonCount, salesCount, schema);
+    }
+
+    /**
+     * 指向当前数据集的连接坐标，供需要额外连接（每线程一个连接等）的基准测试使用
+     */
+    protected JdbcTarget datasetTarget() {
+        return target.withDatabase(schema);
+    }
+
+    protected DatasetSpec datasetSpec() {
+        return new DatasetSpec(salespersonCount, salesCount, seed, groupDistribution, amountDistribution);
+    }
+
+    /**
+     * 执行计划文件名：除数据集外还要区分索引组合，否则不同索引下的计划会互相覆盖
+     */
+    protected String planName(String strategy) {
+        String name = QueryPlan.nameOf(strategy, datasetSpec());
+        return indexConfig == IndexConfig.DEFAULT ? name : name + "+" + indexConfig;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 轮询式变更流：all_sales 上的触发器把每次插入、更新、删除写入 sales_changes 表，
+ * {@link #poll} 按序号读取新增的变更并交给 sink，处理完即删除
+ *
+ * 用作 binlog CDC 的本地替身：变更与业务写入在同一事务中提交，读取方只会看到已提交的变更。
+ * 序号由 AUTO_INCREMENT 分配，只有单个写入者时才与提交顺序一致；多个并发写入者时可能漏读晚提交的小序号
+ */
+final class SalesChangeFeed implements AutoCloseable {
+
+    /**
+     * 变更的接收方（与 Consumer 相同，但允许抛出 SQLException）
+     */
+    interface Sink {
+        void accept(TopSalesCache.Change change) throws SQLException;
+    }
+
+    private final Connection connection;
+    private final PreparedStatement select;
+    private final PreparedStatement purge;
+    private long lastSeq;
+
+    /**
+     * 建立变更表与触发器
+     *
+     * @param root 指向数据集 schema 的 root 坐标：开启 binlog 时创建触发器需要 SUPER 权限
+     */
+    static void install(JdbcTarget root) throws SQLException {
+        try (Connection conn = root.connect();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS sales_changes (
+                    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    op CHAR(1) NOT NULL,
+                    sale_id INT NOT NULL,
+                    salesperson_id INT NOT NULL,
+                    amount DECIMAL(10,2),
+                    customer_name VARCHAR(100)
+                ) ENGINE=InnoDB
+                """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS all_sales_after_insert AFTER INSERT ON all_sales FOR EACH ROW
+                  INSERT INTO sales_changes (op, sale_id, salesperson_id, amount, customer_name)
+                  VALUES ('I', NEW.id, NEW.salesperson_id, NEW.amount, NEW.customer_name)
+                """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS all_sales_after_update AFTER UPDATE ON all_sales FOR EACH ROW
+                BEGIN
+                  IF NEW.salesperson_id <> OLD.salesperson_id THEN
+                    INSERT INTO sales_changes (op, sale_id, salesperson_id) VALUES ('D', OLD.id, OLD.salesperson_id);
+                    INSERT INTO sales_changes (op, sale_id, salesperson_id, amount, customer_name)
+                    VALUES ('I', NEW.id, NEW.salesperson_id, NEW.amount, NEW.customer_name);
+                  ELSE
+                    INSERT INTO sales_changes (op, sale_id, salesperson_id, amount, customer_name)
+                    VALUES ('U', NEW.id, NEW.salesperson_id, NEW.amount, NEW.customer_name);
+                  END IF;
+                END
+                """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS all_sales_after_delete AFTER DELETE ON all_sales FOR EACH ROW
+                  INSERT INTO sales_changes (op, sale_id, salesperson_id) VALUES ('D', OLD.id, OLD.salesperson_id)
+                """);
+        }
+    }
+
+    SalesChangeFeed(JdbcTarget target) throws SQLException {
+        connection = target.connect();
+        select = connection.prepareStatement("""
+            SELECT seq, op, sale_id, salesperson_id, CAST(amount * 100 AS SIGNED), customer_name
+            FROM sales_changes
+            WHERE seq > ?
+            ORDER BY seq
+            """);
+        purge = connection.prepareStatement("DELETE FROM sales_changes WHERE seq <= ?");
+    }
+
+    /**
+     * 读取上次之后的全部变更，按提交顺序交给 sink
+     *
+     * @return 本次处理的变更数
+     */
+    int poll(Sink sink) throws SQLException {
+        int count = 0;
+        select.setLong(1, lastSeq);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                lastSeq = rs.getLong(1);
+                sink.accept(new TopSalesCache.Change(rs.getString(2).charAt(0), rs.getInt(3), rs.getInt(4),
+                        rs.getLong(5), rs.getString(6)));
+                count++;
+            }
+        }
+        if (count > 0) {
+            purge.setLong(1, lastSeq);
+            purge.executeUpdate();
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.benchmark;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 按需生成 all_sales 行的 CSV 字节流，供 LOAD DATA LOCAL INFILE 读取
+ * 不落地临时文件，也不为每行拼接 String：行内容由 {@link SalesDataGenerator.RowCursor} 直接写入复用的字节缓冲区
+ *
+ * 列顺序：id,salesperson_id,customer_name,amount,sale_date
+ */
+public class SalesCsvInputStream extends InputStream {
+
+    private static final byte[] SALE_DATE = ",2024-01-01\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final SalesDataGenerator.RowCursor cursor;
+    private final int to;
+    private int next;  // 下一个要生成的行号
+
+    private final byte[] row = new byte[128];
+    private int rowLength;
+    private int rowPosition;
+
+    /**
+     * 生成行号区间 [from, to) 的销售记录
+     */
+    public SalesCsvInputStream(SalesDataGenerator generator, int from, int to) {
+        this.cursor = generator.cursor();
+        this.next = from;
+        this.to = to;
+    }
+
+    @Override
+    public int read() {
+        if (!ensureRow()) {
+            return -1;
+        }
+        return row[rowPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int written = 0;
+        while (written < length && ensureRow()) {
+            int n = Math.min(length - written, rowLength - rowPosition);
+            System.arraycopy(row, rowPosition, buffer, offset + written, n);
+            rowPosition += n;
+            written += n;
+        }
+        return written == 0 ? -1 : written;
+    }
+
+    private boolean ensureRow() {
+        if (rowPosition < rowLength) {
+            return true;
+        }
+        if (next >= to) {
+            return false;
+        }
+        encodeRow(next++);
+        return true;
+    }
+
+    private void encodeRow(int i) {
+        cursor.moveTo(i);
+        int pos = 0;
+        pos = writeLong(row, pos, i + 1L);
+        row[pos++] = ',';
+        pos = writeLong(row, pos, cursor.salespersonId());
+        row[pos++] = ',';
+        byte[] customer = cursor.customerNameBytes();
+        System.arraycopy(customer, 0, row, pos, customer.length);
+        pos += customer.length;
+        row[pos++] = ',';
+        pos = writeCents(row, pos, cursor.amountCents());
+        System.arraycopy(SALE_DATE, 0, row, pos, SALE_DATE.length);
+        pos += SALE_DATE.length;
+        rowLength = pos;
+        rowPosition = 0;
+    }
+
+    /**
+     * 以 "元.分" 形式写出金额，例如 123456 -> 1234.56
+     */
+    static int writeCents(byte[] dst, int pos, long cents) {
+        pos = writeLong(dst, pos, cents / 100);
+        int fraction = (int) (cents % 100);
+        dst[pos++] = '.';
+        dst[pos++] = (byte) ('0' + fraction / 10);
+        dst[pos++] = (byte) ('0' + fraction % 10);
+        return pos;
+    }
+
+    static int writeLong(byte[] dst, int pos, long value) {
+        if (value == 0) {
+            dst[pos] = '0';
+            return pos + 1;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        for (int k = pos + digits - 1; k >= pos; k--) {
+            dst[k] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+}
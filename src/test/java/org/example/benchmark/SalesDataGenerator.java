@@ -0,0 +1,127 @@
+package org.example.benchmark;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 可复现的测试数据生成器
+ *
+ * 第 i 行的内容只由 (seed, i) 决定：每一行从 seed 派生出自己的 SplitMix64 随机流（与 SplittableRandom
+ * 同一算法），所以无论加载时怎样切分行号区间、用多少个线程，生成的数据都完全一致
+ *
+ * 每个线程通过 {@link #cursor()} 拿到自己的 {@link RowCursor}，生成过程不装箱、不拼接字符串
+ *
+ * 分组大小和金额的分布分别由 {@link GroupDistribution}、{@link AmountDistribution} 决定
+ */
+public class SalesDataGenerator {
+
+    public static final long DEFAULT_SEED = 20240101L;
+
+    static final int CUSTOMER_COUNT = 10_000;
+    static final long MAX_AMOUNT_CENTS = 5_000_000;  // 均匀分布下的金额范围 [0, 50000.00)
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // 客户名只有 CUSTOMER_COUNT 种，预先生成，避免每行 "Customer_" + n
+    private static final String[] CUSTOMER_NAMES = new String[CUSTOMER_COUNT];
+    private static final byte[][] CUSTOMER_NAME_BYTES = new byte[CUSTOMER_COUNT][];
+
+    static {
+        for (int i = 0; i < CUSTOMER_COUNT; i++) {
+            CUSTOMER_NAMES[i] = "Customer_" + i;
+            CUSTOMER_NAME_BYTES[i] = CUSTOMER_NAMES[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final long seed;
+    private final int salespersonCount;
+    private final GroupDistribution.Sampler groupSampler;
+    private final AmountDistribution amountDistribution;
+
+    public SalesDataGenerator(long seed, int salespersonCount) {
+        this(seed, salespersonCount, GroupDistribution.uniform(), AmountDistribution.uniform());
+    }
+
+    public SalesDataGenerator(long seed, int salespersonCount,
+                              GroupDistribution groupDistribution, AmountDistribution amountDistribution) {
+        this.seed = seed;
+        this.salespersonCount = salespersonCount;
+        this.groupSampler = groupDistribution.sampler(salespersonCount);
+        this.amountDistribution = amountDistribution;
+    }
+
+    public static SalesDataGenerator of(DatasetSpec spec) {
+        return new SalesDataGenerator(spec.seed(), spec.salespersonCount(),
+                GroupDistribution.parse(spec.groupDistribution()), AmountDistribution.parse(spec.amountDistribution()));
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public int salespersonCount() {
+        return salespersonCount;
+    }
+
+    /**
+     * 每个线程各取一个游标，游标本身不是线程安全的
+     */
+    public RowCursor cursor() {
+        return new RowCursor();
+    }
+
+    /**
+     * 把 64 位随机数映射为 [0, bound) 上的均匀整数（乘法取高位，偏差可忽略）
+     */
+    static long bounded(long random, long bound) {
+        return Math.multiplyHigh(random >>> 1, bound << 1);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 指向某一行的游标，moveTo 之后通过各 getter 读取该行的列值
+     */
+    public final class RowCursor {
+
+        private long state;  // 当前行的 SplitMix64 状态
+
+        private int salespersonId;
+        private int customerIndex;
+        private long amountCents;
+
+        private RowCursor() {
+        }
+
+        public void moveTo(long row) {
+            // 由 (seed, row) 派生该行独立的随机流，相当于 SplittableRandom 按行号 split
+            state = mix64(seed + (row + 1) * GOLDEN_GAMMA);
+            customerIndex = (int) bounded(nextLong(), CUSTOMER_COUNT);
+            amountCents = amountDistribution.sampleCents(nextLong(), nextLong());
+            salespersonId = groupSampler.sample(row, nextLong());
+        }
+
+        public int salespersonId() {
+            return salespersonId;
+        }
+
+        public long amountCents() {
+            return amountCents;
+        }
+
+        public String customerName() {
+            return CUSTOMER_NAMES[customerIndex];
+        }
+
+        public byte[] customerNameBytes() {
+            return CUSTOMER_NAME_BYTES[customerIndex];
+        }
+
+        private long nextLong() {
+            return mix64(state += GOLDEN_GAMMA);
+        }
+    }
+}
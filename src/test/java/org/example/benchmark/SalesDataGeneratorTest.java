@@ -0,0 +1,111 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数据生成器的可复现性验证（不需要容器）
+ */
+public class SalesDataGeneratorTest {
+
+    @Test
+    void sameSeedGeneratesSameRows() {
+        SalesDataGenerator.RowCursor a = new SalesDataGenerator(42, 100).cursor();
+        SalesDataGenerator.RowCursor b = new SalesDataGenerator(42, 100).cursor();
+        for (int i = 0; i < 10_000; i++) {
+            a.moveTo(i);
+            b.moveTo(i);
+            assertEquals(a.salespersonId(), b.salespersonId());
+            assertEquals(a.customerName(), b.customerName());
+            assertEquals(a.amountCents(), b.amountCents());
+        }
+    }
+
+    @Test
+    void differentSeedGeneratesDifferentRows() {
+        SalesDataGenerator.RowCursor a = new SalesDataGenerator(1, 100).cursor();
+        SalesDataGenerator.RowCursor b = new SalesDataGenerator(2, 100).cursor();
+        int same = 0;
+        for (int i = 0; i < 1000; i++) {
+            a.moveTo(i);
+            b.moveTo(i);
+            if (a.amountCents() == b.amountCents()) {
+                same++;
+            }
+        }
+        assertTrue(same < 10, "不同种子的金额应基本不同");
+    }
+
+    @Test
+    void csvDoesNotDependOnPartitioning() throws IOException {
+        SalesDataGenerator generator = new SalesDataGenerator(7, 50);
+        byte[] whole = new SalesCsvInputStream(generator, 0, 3000).readAllBytes();
+
+        // 按不规则的区间切分后拼接，结果必须与一次性生成完全一致
+        ByteArrayOutputStream parts = new ByteArrayOutputStream();
+        int[] bounds = {0, 1, 999, 1000, 2047, 3000};
+        for (int k = 0; k + 1 < bounds.length; k++) {
+            parts.write(new SalesCsvInputStream(generator, bounds[k], bounds[k + 1]).readAllBytes());
+        }
+        assertArrayEquals(whole, parts.toByteArray());
+    }
+
+    @Test
+    void amountsStayInRange() {
+        SalesDataGenerator.RowCursor cursor = new SalesDataGenerator(3, 10).cursor();
+        for (int i = 0; i < 100_000; i++) {
+            cursor.moveTo(i);
+            assertTrue(cursor.amountCents() >= 0 && cursor.amountCents() < SalesDataGenerator.MAX_AMOUNT_CENTS);
+            assertTrue(cursor.salespersonId() >= 1 && cursor.salespersonId() <= 10);
+        }
+    }
+
+    @Test
+    void skewedDistributionsConcentrateSales() {
+        int salespersonCount = 100;
+        int rows = 100_000;
+        int[] giant = groupSizes(new SalesDataGenerator(5, salespersonCount,
+                GroupDistribution.parse("giant:0.5"), AmountDistribution.uniform()), rows);
+        assertEquals(0.5, giant[1] / (double) rows, 0.01);
+
+        int[] zipf = groupSizes(new SalesDataGenerator(5, salespersonCount,
+                GroupDistribution.parse("zipf:1.5"), AmountDistribution.uniform()), rows);
+        assertTrue(zipf[1] > zipf[2] && zipf[2] > zipf[10] && zipf[10] > zipf[100]);
+
+        int[] hotspot = groupSizes(new SalesDataGenerator(5, salespersonCount,
+                GroupDistribution.parse("hotspot:0.1:0.9"), AmountDistribution.uniform()), rows);
+        int hot = 0;
+        for (int id = 1; id <= 10; id++) {
+            hot += hotspot[id];
+        }
+        assertEquals(0.9, hot / (double) rows, 0.01);
+    }
+
+    @Test
+    void tiesProfileLimitsDistinctAmounts() {
+        SalesDataGenerator.RowCursor cursor = new SalesDataGenerator(9, 10,
+                GroupDistribution.uniform(), AmountDistribution.parse("ties:20")).cursor();
+        Set<Long> amounts = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            cursor.moveTo(i);
+            amounts.add(cursor.amountCents());
+        }
+        assertEquals(20, amounts.size());
+    }
+
+    private static int[] groupSizes(SalesDataGenerator generator, int rows) {
+        int[] sizes = new int[generator.salespersonCount() + 1];
+        SalesDataGenerator.RowCursor cursor = generator.cursor();
+        for (int i = 0; i < rows; i++) {
+            cursor.moveTo(i);
+            sizes[cursor.salespersonId()]++;
+        }
+        return sizes;
+    }
+}
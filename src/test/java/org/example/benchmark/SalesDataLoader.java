@@ -0,0 +1,231 @@
+package org.example.benchmark;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 测试数据并行加载器
+ * 将 all_sales 的行号区间 [0, salesCount) 切分给 N 个工作线程，
+ * 每个线程持有独立的连接、PreparedStatement 和提交节奏
+ *
+ * 支持两种写入方式：
+ * BATCH     - PreparedStatement.addBatch 批量 INSERT
+ * LOAD_DATA - 在内存中生成 CSV 流，经 LOAD DATA LOCAL INFILE 批量导入（服务端需开启 local_infile）
+ */
+public class SalesDataLoader {
+
+    public enum LoadMode {
+        BATCH,
+        LOAD_DATA
+    }
+
+    /**
+     * 一次加载的统计信息
+     */
+    public record LoadStats(LoadMode mode, long rows, long elapsedNanos) {
+        double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    static final int DEFAULT_BATCH_SIZE = 5000;
+    static final int DEFAULT_COMMIT_INTERVAL = 50_000;
+
+    private final JdbcTarget target;
+    private final LoadMode mode;
+    private final int parallelism;
+    private final int batchSize;       // 每批 executeBatch 的行数
+    private final int commitInterval;  // 每个工作线程每提交一次事务的行数（LOAD_DATA 模式下即每条 LOAD DATA 的行数）
+
+    public SalesDataLoader(JdbcTarget target, LoadMode mode, int parallelism) {
+        this(target, mode, parallelism, DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    public SalesDataLoader(JdbcTarget target, LoadMode mode, int parallelism, int batchSize, int commitInterval) {
+        if (parallelism < 1 || batchSize < 1 || commitInterval < batchSize || commitInterval % batchSize != 0) {
+            throw new IllegalArgumentException("parallelism/batchSize 必须 >= 1，且 commitInterval 必须是 batchSize 的整数倍");
+        }
+        // 让驱动把批量 INSERT 改写成多值 INSERT，否则每行仍是一次网络往返
+        // LOAD DATA LOCAL 需要客户端显式允许
+        this.target = target.withProperties("rewriteBatchedStatements=true&allowLoadLocalInfile=true");
+        this.mode = mode;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * 重建官方文档示例的表结构并加载数据
+     */
+    public LoadStats load(DatasetSpec spec) throws SQLException {
+        SalesDataGenerator generator = SalesDataGenerator.of(spec);
+        int salesCount = spec.salesCount();
+        LoadStats stats;
+        try (Connection conn = target.connect()) {
+            createSchema(conn);
+            insertSalespersons(conn, spec.salespersonCount());
+            long start = System.nanoTime();
+            insertSalesInParallel(generator, salesCount);
+            stats = new LoadStats(mode, salesCount, System.nanoTime() - start);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ANALYZE TABLE salesperson");
+                stmt.execute("ANALYZE TABLE all_sales");
+            }
+            System.out.printf("数据加载[%s]: %d行, 耗时 %.2f s, %.0f 行/秒 (%d个工作线程)%n",
+                    mode, stats.rows(), stats.elapsedNanos() / 1_000_000_000.0, stats.rowsPerSecond(), parallelism);
+            printGroupSizes(conn);
+        }
+        return stats;
+    }
+
+    /**
+     * 打印分组大小概况，便于确认分布参数是否生效
+     */
+    private static void printGroupSizes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                 SELECT COUNT(*), MIN(cnt), MAX(cnt), AVG(cnt)
+                 FROM (SELECT COUNT(*) AS cnt FROM all_sales GROUP BY salesperson_id) g
+                 """)) {
+            rs.next();
+            System.out.printf("分组概况: %d个非空分组, 最小 %d 行, 最大 %d 行, 平均 %.1f 行%n",
+                    rs.getInt(1), rs.getLong(2), rs.getLong(3), rs.getDouble(4));
+        }
+    }
+
+    static void createSchema(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS all_sales");
+            stmt.execute("DROP TABLE IF EXISTS salesperson");
+
+            stmt.execute("""
+                CREATE TABLE salesperson (
+                    id INT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(100) NOT NULL
+                ) ENGINE=InnoDB
+                """);
+
+            stmt.execute("""
+                CREATE TABLE all_sales (
+                    id INT AUTO_INCREMENT PRIMARY KEY,
+                    salesperson_id INT NOT NULL,
+                    customer_name VARCHAR(100) NOT NULL,
+                    amount DECIMAL(10,2) NOT NULL,
+                    sale_date DATE NOT NULL,
+                    INDEX idx_salesperson (salesperson_id),
+                    INDEX idx_salesperson_amount (salesperson_id, amount DESC)
+                ) ENGINE=InnoDB
+                """);
+        }
+    }
+
+    private void insertSalespersons(Connection conn, int salespersonCount) throws SQLException {
+        String insertSalesperson = "INSERT INTO salesperson (name) VALUES (?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSalesperson)) {
+            for (int i = 1; i <= salespersonCount; i++) {
+                pstmt.setString(1, "Salesperson_" + i);
+                pstmt.addBatch();
+                if (i % batchSize == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private void insertSalesInParallel(SalesDataGenerator generator, int salesCount) throws SQLException {
+        int workers = Math.max(1, Math.min(parallelism, salesCount / batchSize));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long chunk = (salesCount + (long) workers - 1) / workers;
+            for (int w = 0; w < workers; w++) {
+                int from = (int) Math.min(salesCount, w * chunk);
+                int to = (int) Math.min(salesCount, from + chunk);
+                futures.add(pool.submit(() -> {
+                    if (mode == LoadMode.LOAD_DATA) {
+                        loadSalesRange(generator, from, to);
+                    } else {
+                        insertSalesRange(generator, from, to);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("数据加载被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("数据加载失败", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 单个工作线程：插入行号区间 [from, to) 的销售记录
+     */
+    private void insertSalesRange(SalesDataGenerator generator, int from, int to) throws SQLException {
+        // 显式写入 id = 行号 + 1，主键不随并行插入的先后顺序变化
+        String insertSales = "INSERT INTO all_sales (id, salesperson_id, customer_name, amount, sale_date) VALUES (?, ?, ?, ?, ?)";
+        Date saleDate = Date.valueOf("2024-01-01");
+        SalesDataGenerator.RowCursor cursor = generator.cursor();
+        try (Connection conn = target.connect();
+             PreparedStatement pstmt = conn.prepareStatement(insertSales)) {
+            conn.setAutoCommit(false);
+            int pending = 0;
+            for (int i = from; i < to; i++) {
+                cursor.moveTo(i);
+                pstmt.setInt(1, i + 1);
+                pstmt.setInt(2, cursor.salespersonId());
+                pstmt.setString(3, cursor.customerName());
+                pstmt.setDouble(4, cursor.amountCents() / 100.0);
+                pstmt.setDate(5, saleDate);
+                pstmt.addBatch();
+                pending++;
+                if (pending % batchSize == 0) {
+                    pstmt.executeBatch();
+                }
+                if (pending == commitInterval) {
+                    conn.commit();
+                    pending = 0;
+                }
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    /**
+     * 单个工作线程：以 LOAD DATA LOCAL INFILE 导入行号区间 [from, to)，每 commitInterval 行一条语句
+     */
+    private void loadSalesRange(SalesDataGenerator generator, int from, int to) throws SQLException {
+        String loadSales = """
+            LOAD DATA LOCAL INFILE 'stream' INTO TABLE all_sales
+            FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n'
+            (id, salesperson_id, customer_name, amount, sale_date)
+            """;
+        try (Connection conn = target.connect();
+             Statement stmt = conn.createStatement()) {
+            JdbcStatement jdbcStatement = stmt.unwrap(JdbcStatement.class);
+            for (int chunkStart = from; chunkStart < to; chunkStart += commitInterval) {
+                int chunkEnd = Math.min(to, chunkStart + commitInterval);
+                // 驱动会忽略文件名，改从这里设置的流读取数据；执行后该设置即失效
+                jdbcStatement.setLocalInfileInputStream(new SalesCsvInputStream(generator, chunkStart, chunkEnd));
+                stmt.execute(loadSales);
+            }
+        }
+    }
+}
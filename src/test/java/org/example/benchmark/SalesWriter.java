@@ -0,0 +1,120 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 修改 all_sales 的写入方，每次写入一个事务
+ *
+ * 提交后把变更交给 hook（应用层写入钩子，可为 null，此时只能靠 {@link SalesChangeFeed} 感知变更）；
+ * 提交前记下 System.nanoTime()，缓存应用变更时用 {@link #markApplied} 得到该变更的滞后时间（staleness）
+ */
+final class SalesWriter implements AutoCloseable {
+
+    private final Connection connection;
+    private final SalesChangeFeed.Sink hook;
+    private final PreparedStatement insert;
+    private final PreparedStatement lock;
+    private final PreparedStatement update;
+    private final PreparedStatement delete;
+    private final ConcurrentHashMap<Integer, Long> pendingSince = new ConcurrentHashMap<>();
+
+    SalesWriter(JdbcTarget target, SalesChangeFeed.Sink hook) throws SQLException {
+        this.connection = target.connect();
+        this.hook = hook;
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(
+                "INSERT INTO all_sales (salesperson_id, customer_name, amount, sale_date) VALUES (?, ?, ? / 100, CURDATE())",
+                Statement.RETURN_GENERATED_KEYS);
+        lock = connection.prepareStatement("SELECT salesperson_id, customer_name FROM all_sales WHERE id = ? FOR UPDATE");
+        update = connection.prepareStatement("UPDATE all_sales SET amount = ? / 100 WHERE id = ?");
+        delete = connection.prepareStatement("DELETE FROM all_sales WHERE id = ?");
+    }
+
+    /**
+     * @return 新记录的 id
+     */
+    int insert(int salespersonId, long amountCents, String customerName) throws SQLException {
+        insert.setInt(1, salespersonId);
+        insert.setString(2, customerName);
+        insert.setLong(3, amountCents);
+        insert.executeUpdate();
+        int saleId;
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            keys.next();
+            saleId = keys.getInt(1);
+        }
+        commit(new TopSalesCache.Change('I', saleId, salespersonId, amountCents, customerName));
+        return saleId;
+    }
+
+    /**
+     * @return 记录不存在（例如已被删除）时返回 false
+     */
+    boolean updateAmount(int saleId, long amountCents) throws SQLException {
+        lock.setInt(1, saleId);
+        int salespersonId;
+        String customerName;
+        try (ResultSet rs = lock.executeQuery()) {
+            if (!rs.next()) {
+                connection.rollback();
+                return false;
+            }
+            salespersonId = rs.getInt(1);
+            customerName = rs.getString(2);
+        }
+        update.setLong(1, amountCents);
+        update.setInt(2, saleId);
+        update.executeUpdate();
+        commit(new TopSalesCache.Change('U', saleId, salespersonId, amountCents, customerName));
+        return true;
+    }
+
+    /**
+     * @return 记录不存在时返回 false
+     */
+    boolean delete(int saleId) throws SQLException {
+        lock.setInt(1, saleId);
+        int salespersonId;
+        try (ResultSet rs = lock.executeQuery()) {
+            if (!rs.next()) {
+                connection.rollback();
+                return false;
+            }
+            salespersonId = rs.getInt(1);
+        }
+        delete.setInt(1, saleId);
+        delete.executeUpdate();
+        commit(new TopSalesCache.Change('D', saleId, salespersonId, 0, null));
+        return true;
+    }
+
+    private void commit(TopSalesCache.Change change) throws SQLException {
+        // 同一记录在被应用之前再次修改时保留较早的时间，滞后按最早未应用的变更计算
+        pendingSince.putIfAbsent(change.saleId(), System.nanoTime());
+        connection.commit();
+        if (hook != null) {
+            hook.accept(change);
+        }
+    }
+
+    /**
+     * 缓存应用了某条记录的变更
+     *
+     * @return 从提交到应用经过的纳秒数；该记录没有未应用的变更时返回 -1
+     */
+    long markApplied(int saleId) {
+        Long since = pendingSince.remove(saleId);
+        return since == null ? -1 : System.nanoTime() - since;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+}
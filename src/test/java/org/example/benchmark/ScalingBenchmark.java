@@ -0,0 +1,161 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据规模扫描：salesCount 按几何级数增长，salespersonCount 独立变化，
+ * 结束后对每种写法拟合 t = a · n^b · g^c（{@link ScalingFit}），报告指数、最贴合的模型、两两交叉点和生产规模下的预测
+ *
+ * 扫描范围由系统属性控制（磁盘允许时可把上限提到 1 亿）：
+ * -Dbench.sweep.minSales=10000 -Dbench.sweep.maxSales=10000000 -Dbench.sweep.factor=10
+ * -Dbench.sweep.salespersons=100,1000,10000 -Dbench.sweep.targetRows=400000000
+ *
+ * 结果写入 target/scaling/：measurements.csv、fits.csv、crossovers.csv
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)  // 大数据量下单次查询可达分钟级，每个参数组合只用一个全新的JVM
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class ScalingBenchmark extends SalesBenchmarkBase {
+
+    static final Path SCALING_DIR = Path.of("target", "scaling");
+
+    @Param({"LATERAL", "WINDOW", "CORRELATED", "CLIENT"})
+    private String strategy;
+
+    @Benchmark
+    public int topSales() throws SQLException {
+        return switch (strategy) {
+            case "LATERAL" -> run(QuickBenchmarkTest.LATERAL_SQL);
+            case "WINDOW" -> run(QuickBenchmarkTest.WINDOW_SQL);
+            case "CORRELATED" -> run(QuickBenchmarkTest.CORRELATED_SUBQUERY_SQL);
+            case "CLIENT" -> ClientSideTopSales.compute(connection, salespersonCount).size();
+            default -> throw new IllegalArgumentException("未知的 strategy: " + strategy
+                    + "，可选 LATERAL / WINDOW / CORRELATED / CLIENT");
+        };
+    }
+
+    private int run(String sql) throws SQLException {
+        int count = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int minSales = Integer.getInteger("bench.sweep.minSales", 10_000);
+        int maxSales = Integer.getInteger("bench.sweep.maxSales", 10_000_000);
+        double factor = Double.parseDouble(System.getProperty("bench.sweep.factor", "10"));
+        String[] salespersons = System.getProperty("bench.sweep.salespersons", "100,1000,10000").trim().split("\\s*,\\s*");
+        double targetRows = Double.parseDouble(System.getProperty("bench.sweep.targetRows", "400000000"));
+
+        List<String> salesCounts = new ArrayList<>();
+        for (double n = minSales; n <= maxSales * 1.000001; n *= factor) {
+            salesCounts.add(Long.toString(Math.round(n)));
+        }
+
+        Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(ScalingBenchmark.class.getSimpleName())
+                .param("salesCount", salesCounts.toArray(String[]::new))
+                .param("salespersonCount", salespersons)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-scaling.json")
+                .build();
+
+        Collection<RunResult> results = BenchmarkLauncher.run(opt);
+        report(results, salespersons, targetRows);
+
+        stopContainer();
+    }
+
+    private static void report(Collection<RunResult> results, String[] salespersons, double targetRows) throws IOException {
+        Files.createDirectories(SCALING_DIR);
+        Map<String, List<ScalingFit.Sample>> samples = new TreeMap<>();
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(SCALING_DIR.resolve("measurements.csv")))) {
+            out.println("strategy,salesCount,salespersonCount,ms,error");
+            for (RunResult result : results) {
+                String strategy = result.getParams().getParam("strategy");
+                double rows = Double.parseDouble(result.getParams().getParam("salesCount"));
+                double groups = Double.parseDouble(result.getParams().getParam("salespersonCount"));
+                double millis = result.getPrimaryResult().getScore();
+                samples.computeIfAbsent(strategy, k -> new ArrayList<>()).add(new ScalingFit.Sample(rows, groups, millis));
+                out.printf(Locale.ROOT, "%s,%.0f,%.0f,%.3f,%.3f%n", strategy, rows, groups, millis, result.getPrimaryResult().getScoreError());
+            }
+        }
+
+        Map<String, ScalingFit.Fit> fits = new TreeMap<>();
+        System.out.printf("%n====== 规模扩展拟合 t = a · n^b · g^c ======%n");
+        System.out.printf("%-12s %8s %8s %8s  %-14s %s%n", "写法", "b(记录)", "c(人员)", "R²", "最贴合模型", "各模型对数残差 RMS");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(SCALING_DIR.resolve("fits.csv")))) {
+            out.println("strategy,logA,rowsExponent,groupsExponent,r2,bestModel,rmsLinearRows,rmsNLogN,rmsLinearGroups");
+            for (Map.Entry<String, List<ScalingFit.Sample>> entry : samples.entrySet()) {
+                if (entry.getValue().stream().mapToDouble(ScalingFit.Sample::rows).distinct().count() < 2) {
+                    System.out.printf("%-12s 只有一种 salesCount，无法拟合%n", entry.getKey());
+                    continue;
+                }
+                ScalingFit.Fit fit = ScalingFit.fit(entry.getValue());
+                fits.put(entry.getKey(), fit);
+                Map<ScalingFit.Model, Double> rms = fit.rmsLogError();
+                System.out.printf("%-12s %8.3f %8.3f %8.4f  %-14s n:%.3f  n·log n:%.3f  g:%.3f%n",
+                        entry.getKey(), fit.rowsExponent(), fit.groupsExponent(), fit.r2(), fit.bestModel().formula(),
+                        rms.get(ScalingFit.Model.LINEAR_ROWS), rms.get(ScalingFit.Model.N_LOG_N),
+                        rms.get(ScalingFit.Model.LINEAR_GROUPS));
+                out.printf(Locale.ROOT, "%s,%.6f,%.6f,%.6f,%.6f,%s,%.6f,%.6f,%.6f%n", entry.getKey(), fit.logA(),
+                        fit.rowsExponent(), fit.groupsExponent(), fit.r2(), fit.bestModel(),
+                        rms.get(ScalingFit.Model.LINEAR_ROWS), rms.get(ScalingFit.Model.N_LOG_N),
+                        rms.get(ScalingFit.Model.LINEAR_GROUPS));
+            }
+        }
+
+        List<String> strategies = new ArrayList<>(fits.keySet());
+        System.out.printf("%n====== 交叉点与 %.0f 条记录时的预测 ======%n", targetRows);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(SCALING_DIR.resolve("crossovers.csv")))) {
+            out.println("salespersonCount,first,second,crossoverSalesCount");
+            for (String value : salespersons) {
+                double groups = Double.parseDouble(value);
+                System.out.printf("销售人员数 %.0f:%n", groups);
+                for (int i = 0; i < strategies.size(); i++) {
+                    for (int j = i + 1; j < strategies.size(); j++) {
+                        String first = strategies.get(i);
+                        String second = strategies.get(j);
+                        double rows = ScalingFit.crossover(fits.get(first), fits.get(second), groups);
+                        out.printf(Locale.ROOT, "%.0f,%s,%s,%.0f%n", groups, first, second, rows);
+                        if (!Double.isNaN(rows)) {
+                            System.out.printf("  %s 与 %s 在约 %.3g 条记录处交叉%n", first, second, rows);
+                        }
+                    }
+                }
+                for (String strategy : strategies) {
+                    System.out.printf("  %-12s 预测 %.1f ms%n", strategy, fits.get(strategy).predict(targetRows, groups));
+                }
+            }
+        }
+        System.out.println("拟合结果已写入 " + SCALING_DIR);
+    }
+}
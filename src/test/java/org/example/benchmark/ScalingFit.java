@@ -0,0 +1,187 @@
+package org.example.benchmark;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 规模扩展曲线拟合：把一种写法在不同 (销售记录数 n, 销售人员数 g) 下的耗时拟合成 t = a · n^b · g^c
+ *
+ * 在对数空间做最小二乘，b、c 即随记录数、随分组数增长的指数；
+ * 另外用几种固定形状的模型（t ∝ n、t ∝ n·log n、t ∝ g）各拟合一个系数，以对数残差的均方根比较哪种最贴合。
+ * 两种写法的幂律拟合相交处即交叉点：超过它之后排名反转
+ */
+final class ScalingFit {
+
+    /**
+     * 一次测量：n 条销售记录、g 个销售人员时的耗时（毫秒）
+     */
+    record Sample(double rows, double groups, double millis) {
+    }
+
+    /**
+     * 固定形状的扩展模型
+     */
+    enum Model {
+        LINEAR_ROWS("t ∝ n"),
+        N_LOG_N("t ∝ n·log n"),
+        LINEAR_GROUPS("t ∝ g");
+
+        private final String formula;
+
+        Model(String formula) {
+            this.formula = formula;
+        }
+
+        String formula() {
+            return formula;
+        }
+
+        double shape(double rows, double groups) {
+            return switch (this) {
+                case LINEAR_ROWS -> rows;
+                case N_LOG_N -> rows * Math.log(rows);
+                case LINEAR_GROUPS -> groups;
+            };
+        }
+    }
+
+    /**
+     * @param groupsExponent 只测了一种销售人员数时无法拟合，为 NaN（预测时按 0 处理）
+     * @param r2             对数空间的决定系数
+     * @param rmsLogError    各固定模型的对数残差均方根，越小越贴合
+     */
+    record Fit(double logA, double rowsExponent, double groupsExponent, double r2,
+               Map<Model, Double> rmsLogError, Model bestModel) {
+
+        double predict(double rows, double groups) {
+            double c = Double.isNaN(groupsExponent) ? 0 : groupsExponent;
+            return Math.exp(logA + rowsExponent * Math.log(rows) + c * Math.log(groups));
+        }
+    }
+
+    private ScalingFit() {
+    }
+
+    static Fit fit(List<Sample> samples) {
+        int n = samples.size();
+        double[] y = new double[n];
+        double[][] x = new double[n][];
+        boolean groupsVary = samples.stream().mapToDouble(Sample::groups).distinct().count() > 1;
+        for (int i = 0; i < n; i++) {
+            Sample s = samples.get(i);
+            y[i] = Math.log(s.millis());
+            x[i] = groupsVary
+                    ? new double[]{1, Math.log(s.rows()), Math.log(s.groups())}
+                    : new double[]{1, Math.log(s.rows())};
+        }
+        double[] beta = leastSquares(x, y);
+
+        double mean = 0;
+        for (double v : y) {
+            mean += v / n;
+        }
+        double residual = 0;
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            double predicted = 0;
+            for (int j = 0; j < beta.length; j++) {
+                predicted += beta[j] * x[i][j];
+            }
+            residual += (y[i] - predicted) * (y[i] - predicted);
+            total += (y[i] - mean) * (y[i] - mean);
+        }
+        double r2 = total == 0 ? 1 : 1 - residual / total;
+
+        Map<Model, Double> rms = new EnumMap<>(Model.class);
+        Model best = null;
+        for (Model model : Model.values()) {
+            double error = rmsLogError(samples, model);
+            rms.put(model, error);
+            if (best == null || error < rms.get(best)) {
+                best = model;
+            }
+        }
+        return new Fit(beta[0], beta[1], groupsVary ? beta[2] : Double.NaN, r2, rms, best);
+    }
+
+    /**
+     * 单参数模型 t = k · shape(n, g)：对数空间里最优的 log k 就是 log t - log shape 的均值
+     */
+    static double rmsLogError(List<Sample> samples, Model model) {
+        double[] residuals = new double[samples.size()];
+        double logK = 0;
+        for (int i = 0; i < residuals.length; i++) {
+            Sample s = samples.get(i);
+            residuals[i] = Math.log(s.millis()) - Math.log(model.shape(s.rows(), s.groups()));
+            logK += residuals[i] / residuals.length;
+        }
+        double sum = 0;
+        for (double r : residuals) {
+            sum += (r - logK) * (r - logK);
+        }
+        return Math.sqrt(sum / residuals.length);
+    }
+
+    /**
+     * 两条幂律在给定销售人员数下相交时的记录数，指数相同（平行）或交点无意义时返回 NaN
+     */
+    static double crossover(Fit first, Fit second, double groups) {
+        double slope = first.rowsExponent() - second.rowsExponent();
+        if (Math.abs(slope) < 1e-9) {
+            return Double.NaN;
+        }
+        double logGroups = Math.log(groups);
+        double c1 = Double.isNaN(first.groupsExponent()) ? 0 : first.groupsExponent();
+        double c2 = Double.isNaN(second.groupsExponent()) ? 0 : second.groupsExponent();
+        double logRows = (second.logA() - first.logA() + (c2 - c1) * logGroups) / slope;
+        double rows = Math.exp(logRows);
+        return Double.isFinite(rows) && rows >= 1 ? rows : Double.NaN;
+    }
+
+    /**
+     * 最小二乘：解法方程 (XᵀX)β = Xᵀy（高斯消元，列主元）
+     */
+    static double[] leastSquares(double[][] x, double[] y) {
+        int k = x[0].length;
+        if (x.length < k) {
+            throw new IllegalArgumentException("样本数 " + x.length + " 少于待拟合参数个数 " + k);
+        }
+        double[][] a = new double[k][k + 1];
+        for (int i = 0; i < x.length; i++) {
+            for (int r = 0; r < k; r++) {
+                for (int c = 0; c < k; c++) {
+                    a[r][c] += x[i][r] * x[i][c];
+                }
+                a[r][k] += x[i][r] * y[i];
+            }
+        }
+        for (int col = 0; col < k; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < k; r++) {
+                if (Math.abs(a[r][col]) > Math.abs(a[pivot][col])) {
+                    pivot = r;
+                }
+            }
+            if (Math.abs(a[pivot][col]) < 1e-12) {
+                throw new IllegalArgumentException("样本在第 " + col + " 个变量上没有变化，无法拟合");
+            }
+            double[] tmp = a[col];
+            a[col] = a[pivot];
+            a[pivot] = tmp;
+            for (int r = 0; r < k; r++) {
+                if (r != col) {
+                    double factor = a[r][col] / a[col][col];
+                    for (int c = col; c <= k; c++) {
+                        a[r][c] -= factor * a[col][c];
+                    }
+                }
+            }
+        }
+        double[] beta = new double[k];
+        for (int r = 0; r < k; r++) {
+            beta[r] = a[r][k] / a[r][r];
+        }
+        return beta;
+    }
+}
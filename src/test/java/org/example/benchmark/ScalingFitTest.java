@@ -0,0 +1,56 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 规模扩展曲线拟合（不需要容器）
+ */
+public class ScalingFitTest {
+
+    @Test
+    void recoversRowAndGroupExponents() {
+        List<ScalingFit.Sample> samples = new ArrayList<>();
+        for (double rows = 1e4; rows <= 1e8; rows *= 10) {
+            for (double groups : new double[]{100, 1000, 10_000}) {
+                samples.add(new ScalingFit.Sample(rows, groups, 3e-4 * rows * Math.sqrt(groups)));
+            }
+        }
+        ScalingFit.Fit fit = ScalingFit.fit(samples);
+        assertEquals(1.0, fit.rowsExponent(), 1e-9);
+        assertEquals(0.5, fit.groupsExponent(), 1e-9);
+        assertEquals(1.0, fit.r2(), 1e-9);
+        assertEquals(3e-4 * 4e8 * 10, fit.predict(4e8, 100), 1e-3);
+    }
+
+    @Test
+    void picksNLogNForSortLikeGrowth() {
+        List<ScalingFit.Sample> samples = new ArrayList<>();
+        for (double rows = 1e4; rows <= 1e8; rows *= 10) {
+            samples.add(new ScalingFit.Sample(rows, 500, 1e-5 * rows * Math.log(rows)));
+        }
+        ScalingFit.Fit fit = ScalingFit.fit(samples);
+        assertEquals(ScalingFit.Model.N_LOG_N, fit.bestModel());
+        assertTrue(Double.isNaN(fit.groupsExponent()));
+        assertTrue(fit.rowsExponent() > 1 && fit.rowsExponent() < 1.2);
+        assertEquals(0, fit.rmsLogError().get(ScalingFit.Model.N_LOG_N), 1e-9);
+    }
+
+    @Test
+    void crossoverWhereFitsIntersect() {
+        List<ScalingFit.Sample> linear = new ArrayList<>();
+        List<ScalingFit.Sample> sqrt = new ArrayList<>();
+        for (double rows = 1e4; rows <= 1e7; rows *= 10) {
+            linear.add(new ScalingFit.Sample(rows, 500, rows));
+            sqrt.add(new ScalingFit.Sample(rows, 500, 1000 * Math.sqrt(rows)));
+        }
+        ScalingFit.Fit a = ScalingFit.fit(linear);
+        ScalingFit.Fit b = ScalingFit.fit(sqrt);
+        assertEquals(1e6, ScalingFit.crossover(a, b, 500), 1e-3);
+        assertTrue(Double.isNaN(ScalingFit.crossover(a, a, 500)));
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 服务端开销采集：把每次调用在 MySQL 端的工作量作为 JMH 次要指标输出
+ *
+ * 基准方法执行前（@Setup(Level.Invocation)）调用 {@link #mark} 记下位置，执行完后（@TearDown(Level.Invocation)）调用 {@link #capture}，
+ * 从 performance_schema.events_statements_history 读取本连接在这之间执行的全部 SELECT 并求和
+ * （客户端聚合一次调用有扫描和读名字两条查询，只取最后一条会漏掉扫描）；
+ * 每轮迭代结束时按调用次数取平均，以 "·server.xxx" 的名字写进 jmh-result.json，
+ * 用于解释 ms/op 的差异：扫描了多少行、有没有落盘临时表、排序归并了几趟
+ *
+ * 使用：OptionsBuilder.addProfiler(ServerCostProfiler.class)，或命令行 -prof org.example.benchmark.ServerCostProfiler
+ * 需要基准账号对 performance_schema 有 SELECT 权限（{@link BenchmarkContainer} 已授予）
+ */
+public class ServerCostProfiler implements InternalProfiler {
+
+    /**
+     * TIMER_WAIT / LOCK_TIME 的单位是皮秒
+     */
+    private static final double PICOS_PER_MILLI = 1_000_000_000.0;
+
+    /**
+     * 取的是这条查询自身的 EVENT_ID，它结束后进入 history，但不满足 EVENT_ID > mark
+     */
+    private static final String MARK_SQL = """
+            SELECT MAX(EVENT_ID)
+            FROM performance_schema.events_statements_current
+            WHERE THREAD_ID = PS_CURRENT_THREAD_ID()
+            """;
+
+    /**
+     * history 每个线程默认只保留最近 10 条语句（performance_schema_events_statements_history_size），
+     * 对一次调用只有一两条查询的基准方法足够
+     */
+    private static final String STATEMENTS_SINCE_SQL = """
+            SELECT COUNT(*), SUM(ROWS_EXAMINED), SUM(ROWS_SENT), SUM(CREATED_TMP_TABLES), SUM(CREATED_TMP_DISK_TABLES),
+                   SUM(SORT_MERGE_PASSES), SUM(SORT_ROWS), SUM(LOCK_TIME), SUM(TIMER_WAIT)
+            FROM performance_schema.events_statements_history
+            WHERE THREAD_ID = PS_CURRENT_THREAD_ID()
+              AND EVENT_NAME = 'statement/sql/select'
+              AND EVENT_ID > ?
+            """;
+
+    private static final Object LOCK = new Object();
+    private static long invocations;
+    private static long rowsExamined;
+    private static long rowsSent;
+    private static long tmpTables;
+    private static long tmpDiskTables;
+    private static long sortMergePasses;
+    private static long sortRows;
+    private static long lockTimePicos;
+    private static long timerWaitPicos;
+
+    /**
+     * 基准方法执行前记下 connection 当前的语句位置，交给之后的 {@link #capture}
+     */
+    static long mark(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(MARK_SQL)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 把 connection 上 mark 之后执行完的全部查询的服务端统计求和，作为一次调用累加
+     * 采集查询本身尚未结束，不会出现在 history 里，因此取到的一定是基准方法发出的查询
+     */
+    static void capture(Connection connection, long mark) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(STATEMENTS_SINCE_SQL)) {
+            stmt.setLong(1, mark);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getLong(1) == 0) {
+                    return;
+                }
+                synchronized (LOCK) {
+                    invocations++;
+                    rowsExamined += rs.getLong(2);
+                    rowsSent += rs.getLong(3);
+                    tmpTables += rs.getLong(4);
+                    tmpDiskTables += rs.getLong(5);
+                    sortMergePasses += rs.getLong(6);
+                    sortRows += rs.getLong(7);
+                    lockTimePicos += rs.getLong(8);
+                    timerWaitPicos += rs.getLong(9);
+                }
+            }
+        }
+    }
+
+    private static void reset() {
+        synchronized (LOCK) {
+            invocations = 0;
+            rowsExamined = 0;
+            rowsSent = 0;
+            tmpTables = 0;
+            tmpDiskTables = 0;
+            sortMergePasses = 0;
+            sortRows = 0;
+            lockTimePicos = 0;
+            timerWaitPicos = 0;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "MySQL 服务端每次调用的开销（performance_schema.events_statements_history）";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        reset();
+    }
+
+    /**
+     * 每轮迭代输出一次按调用平均的值；多轮迭代之间按 AVG 汇总，不会被累加
+     */
+    @Override
+    public Collection<? extends Result<?>> afterIteration(BenchmarkParams benchmarkParams,
+                                                          IterationParams iterationParams,
+                                                          IterationResult result) {
+        synchronized (LOCK) {
+            if (invocations == 0) {
+                return Collections.emptyList();
+            }
+            double n = invocations;
+            List<Result<?>> results = new ArrayList<>();
+            results.add(perOp("rowsExamined", rowsExamined / n, "rows/op"));
+            results.add(perOp("rowsSent", rowsSent / n, "rows/op"));
+            results.add(perOp("tmpTables", tmpTables / n, "#/op"));
+            results.add(perOp("tmpDiskTables", tmpDiskTables / n, "#/op"));
+            results.add(perOp("sortMergePasses", sortMergePasses / n, "#/op"));
+            results.add(perOp("sortRows", sortRows / n, "rows/op"));
+            results.add(perOp("lockTime", lockTimePicos / n / PICOS_PER_MILLI, "ms/op"));
+            results.add(perOp("execTime", timerWaitPicos / n / PICOS_PER_MILLI, "ms/op"));
+            return results;
+        }
+    }
+
+    private static ScalarResult perOp(String name, double value, String unit) {
+        return new ScalarResult("·server." + name, value, unit, AggregationPolicy.AVG);
+    }
+}
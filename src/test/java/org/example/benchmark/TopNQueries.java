@@ -0,0 +1,107 @@
+package org.example.benchmark;
+
+/**
+ * 每个销售人员销售额最高的 N 条记录（Top-N per group）的几种写法
+ *
+ * 为保证各写法结果完全一致，金额相同时统一按 all_sales.id 升序决出名次，
+ * 即排序键为 (amount DESC, id ASC)；销售记录不足 N 条的销售人员返回其全部记录
+ */
+public enum TopNQueries {
+
+    /**
+     * LATERAL 派生表：对每个销售人员沿 (salesperson_id, amount DESC) 索引取前 N 条
+     */
+    LATERAL {
+        @Override
+        String sql(int n) {
+            return """
+                SELECT
+                  salesperson.name,
+                  top_sale.amount,
+                  top_sale.customer_name
+                FROM
+                  salesperson,
+                  LATERAL
+                  (SELECT amount, customer_name
+                    FROM all_sales
+                    WHERE all_sales.salesperson_id = salesperson.id
+                    ORDER BY amount DESC, id LIMIT %d)
+                  AS top_sale
+                """.formatted(n);
+        }
+    },
+
+    /**
+     * 窗口函数 ROW_NUMBER()：一次扫描全表编号，再过滤 rn <= N
+     */
+    WINDOW {
+        @Override
+        String sql(int n) {
+            return """
+                SELECT
+                    s.name,
+                    ranked.amount,
+                    ranked.customer_name
+                FROM salesperson s
+                JOIN (
+                    SELECT
+                        salesperson_id,
+                        amount,
+                        customer_name,
+                        ROW_NUMBER() OVER (PARTITION BY salesperson_id ORDER BY amount DESC, id) AS rn
+                    FROM all_sales
+                ) ranked ON s.id = ranked.salesperson_id AND ranked.rn <= %d
+                """.formatted(n);
+        }
+    },
+
+    /**
+     * 相关子查询：对每一行数出排在它前面的记录数，小于 N 即入选
+     */
+    CORRELATED {
+        @Override
+        String sql(int n) {
+            return """
+                SELECT
+                  s.name,
+                  a.amount,
+                  a.customer_name
+                FROM salesperson s
+                JOIN all_sales a ON a.salesperson_id = s.id
+                WHERE
+                  (SELECT COUNT(*)
+                    FROM all_sales b
+                    WHERE b.salesperson_id = a.salesperson_id
+                    AND (b.amount > a.amount OR (b.amount = a.amount AND b.id < a.id)))
+                  < %d
+                """.formatted(n);
+        }
+    },
+
+    /**
+     * 自连接 + GROUP BY ... HAVING：MySQL 8.0 之前没有窗口函数时的经典写法
+     */
+    SELF_JOIN {
+        @Override
+        String sql(int n) {
+            return """
+                SELECT
+                  s.name,
+                  a.amount,
+                  a.customer_name
+                FROM all_sales a
+                JOIN all_sales b
+                  ON b.salesperson_id = a.salesperson_id
+                  AND (b.amount > a.amount OR (b.amount = a.amount AND b.id <= a.id))
+                JOIN salesperson s ON s.id = a.salesperson_id
+                GROUP BY a.id, s.name, a.amount, a.customer_name
+                HAVING COUNT(*) <= %d
+                """.formatted(n);
+        }
+    };
+
+    /**
+     * @param n 每组保留的记录数，必须 >= 1
+     */
+    abstract String sql(int n);
+}
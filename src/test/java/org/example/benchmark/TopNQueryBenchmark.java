@@ -0,0 +1,112 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-N per group 基准测试：每个销售人员销售额最高的 N 条记录
+ * README 建议 N > 1 时使用窗口函数，这里用 topN 参数实测各写法的拐点
+ *
+ * 各写法的 SQL 见 {@link TopNQueries}；trial 开始前会校验所有写法返回完全相同的结果
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class TopNQueryBenchmark extends SalesBenchmarkBase {
+
+    @Param({"1", "5", "20"})
+    private int topN;  // 每个销售人员保留的记录数
+
+    private final Map<TopNQueries, String> sqlByStrategy = new EnumMap<>(TopNQueries.class);
+
+    @Override
+    protected void afterDataset() throws SQLException, IOException {
+        for (TopNQueries strategy : TopNQueries.values()) {
+            sqlByStrategy.put(strategy, strategy.sql(topN));
+            QueryPlan.captureAndCheck(connection, planName("TOP" + topN + "_" + strategy),
+                    sqlByStrategy.get(strategy));
+        }
+
+        List<String> expected = fetchSorted(sqlByStrategy.get(TopNQueries.LATERAL));
+        for (TopNQueries strategy : TopNQueries.values()) {
+            List<String> actual = fetchSorted(sqlByStrategy.get(strategy));
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException(String.format("Top-%d 结果不一致: LATERAL 返回 %d 行, %s 返回 %d 行",
+                        topN, expected.size(), strategy, actual.size()));
+            }
+        }
+        System.out.printf("Top-%d 结果校验通过: 各写法均返回 %d 行%n", topN, expected.size());
+    }
+
+    private List<String> fetchSorted(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + "|" + rs.getBigDecimal(2) + "|" + rs.getString(3));
+            }
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+
+    private int run(TopNQueries strategy) throws SQLException {
+        int count = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sqlByStrategy.get(strategy))) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int topNLateral() throws SQLException {
+        return run(TopNQueries.LATERAL);
+    }
+
+    @Benchmark
+    public int topNWindow() throws SQLException {
+        return run(TopNQueries.WINDOW);
+    }
+
+    @Benchmark
+    public int topNCorrelated() throws SQLException {
+        return run(TopNQueries.CORRELATED);
+    }
+
+    @Benchmark
+    public int topNSelfJoin() throws SQLException {
+        return run(TopNQueries.SELF_JOIN);
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 透传命令行参数，例如 -p salesCount=100000 覆盖 @Param 默认值
+        Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(TopNQueryBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.TEXT)
+                .build();
+
+        BenchmarkLauncher.run(opt);
+
+        stopContainer();
+    }
+}
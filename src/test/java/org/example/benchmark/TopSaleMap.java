@@ -0,0 +1,150 @@
+package org.example.benchmark;
+
+/**
+ * salesperson_id -> 当前最大销售额 的开放寻址哈希表（线性探测），供客户端聚合使用
+ *
+ * 键、金额（分）、销售记录 id 都存放在基本类型数组里，逐行更新时不装箱、不创建对象；
+ * 客户名只在某个销售人员的最大值被刷新时才写入，调用方据此决定是否读取该列。
+ * 金额相同时保留 id 较小的记录，与 (amount DESC, id) 的排序一致
+ *
+ * 键必须为正数（0 表示空槽），非线程安全：并行聚合时每个线程各用一个，最后用 {@link #merge} 合并
+ */
+final class TopSaleMap {
+
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private long[] amounts;
+    private int[] saleIds;
+    private String[] customerNames;
+    private int size;
+    private int mask;
+
+    /**
+     * @param expectedKeys 预计的销售人员数量，据此预分配容量（负载因子不超过 0.5）
+     */
+    TopSaleMap(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedKeys) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        amounts = new long[capacity];
+        saleIds = new int[capacity];
+        customerNames = new String[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 用一行销售记录尝试刷新该销售人员的最大值
+     *
+     * @return 刷新了则返回槽位（随后用 {@link #setCustomerName} 写入客户名），否则返回 -1
+     */
+    int offer(int salespersonId, long amountCents, int saleId) {
+        int slot = slotOf(salespersonId);
+        if (keys[slot] == EMPTY) {
+            if (size * 2 >= keys.length) {
+                grow();
+                slot = slotOf(salespersonId);
+            }
+            keys[slot] = salespersonId;
+            size++;
+        } else if (amountCents < amounts[slot] || (amountCents == amounts[slot] && saleId > saleIds[slot])) {
+            return -1;
+        }
+        amounts[slot] = amountCents;
+        saleIds[slot] = saleId;
+        return slot;
+    }
+
+    void setCustomerName(int slot, String customerName) {
+        customerNames[slot] = customerName;
+    }
+
+    /**
+     * 合并另一个（例如其他线程的）部分结果
+     */
+    void merge(TopSaleMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                int slot = offer(other.keys[i], other.amounts[i], other.saleIds[i]);
+                if (slot >= 0) {
+                    customerNames[slot] = other.customerNames[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return key 所在槽位，不存在时返回 -1
+     */
+    int find(int key) {
+        int slot = slotOf(key);
+        return keys[slot] == EMPTY ? -1 : slot;
+    }
+
+    private int slotOf(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldAmounts = amounts;
+        int[] oldSaleIds = saleIds;
+        String[] oldNames = customerNames;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                amounts[slot] = oldAmounts[i];
+                saleIds[slot] = oldSaleIds[i];
+                customerNames[slot] = oldNames[i];
+            }
+        }
+    }
+
+    /**
+     * 连续的 id 直接取模会聚成一片，先打散
+     */
+    private static int mix(int key) {
+        int h = key * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 槽位数，配合 {@link #occupied} 遍历全部条目
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    boolean occupied(int slot) {
+        return keys[slot] != EMPTY;
+    }
+
+    int salespersonId(int slot) {
+        return keys[slot];
+    }
+
+    long amountCents(int slot) {
+        return amounts[slot];
+    }
+
+    int saleId(int slot) {
+        return saleIds[slot];
+    }
+
+    String customerName(int slot) {
+        return customerNames[slot];
+    }
+}
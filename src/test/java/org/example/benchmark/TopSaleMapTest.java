@@ -0,0 +1,69 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 客户端聚合用的开放寻址哈希表（不需要容器）
+ */
+public class TopSaleMapTest {
+
+    @Test
+    void keepsMaximumPerKeyAcrossGrowth() {
+        TopSaleMap map = new TopSaleMap(2);
+        for (int row = 0; row < 100_000; row++) {
+            int key = row % 5000 + 1;
+            long amount = (row * 7919L) % 100_003;
+            int slot = map.offer(key, amount, row + 1);
+            if (slot >= 0) {
+                map.setCustomerName(slot, "c" + row);
+            }
+        }
+        assertEquals(5000, map.size());
+        for (int key = 1; key <= 5000; key++) {
+            long expected = -1;
+            int expectedRow = -1;
+            for (int row = key - 1; row < 100_000; row += 5000) {
+                long amount = (row * 7919L) % 100_003;
+                if (amount > expected) {
+                    expected = amount;
+                    expectedRow = row;
+                }
+            }
+            int slot = map.find(key);
+            assertEquals(expected, map.amountCents(slot));
+            assertEquals("c" + expectedRow, map.customerName(slot));
+        }
+        assertEquals(-1, map.find(5001));
+    }
+
+    @Test
+    void tiesKeepLowestSaleId() {
+        TopSaleMap map = new TopSaleMap(4);
+        assertTrue(map.offer(1, 500, 30) >= 0);
+        assertTrue(map.offer(1, 500, 10) >= 0);
+        assertEquals(-1, map.offer(1, 500, 20));
+        assertEquals(-1, map.offer(1, 499, 1));
+        assertEquals(10, map.saleId(map.find(1)));
+    }
+
+    @Test
+    void mergeEqualsSingleMap() {
+        TopSaleMap all = new TopSaleMap(16);
+        TopSaleMap[] parts = {new TopSaleMap(16), new TopSaleMap(16), new TopSaleMap(16)};
+        for (int row = 0; row < 3000; row++) {
+            int key = (row * 31) % 97 + 1;
+            long amount = (row * 104_729L) % 1000;
+            all.offer(key, amount, row + 1);
+            parts[row % 3].offer(key, amount, row + 1);
+        }
+        parts[0].merge(parts[1]);
+        parts[0].merge(parts[2]);
+        assertEquals(all.size(), parts[0].size());
+        for (int key = 1; key <= 97; key++) {
+            assertEquals(all.amountCents(all.find(key)), parts[0].amountCents(parts[0].find(key)));
+            assertEquals(all.saleId(all.find(key)), parts[0].saleId(parts[0].find(key)));
+        }
+    }
+}
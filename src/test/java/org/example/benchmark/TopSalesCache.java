@@ -0,0 +1,160 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量维护的"每个销售人员最大销售额"缓存
+ *
+ * 先用 {@link ClientSideTopSales} 的方式全表扫描建立一次，之后只根据变更事件更新：
+ * 插入或金额变大时直接比较替换；当前最大值被删除或金额变小时，只对该销售人员重新查询一次
+ * （走 idx_salesperson_amount，ORDER BY amount DESC, id LIMIT 1）
+ *
+ * 读取（{@link #snapshot}）可与更新并发；{@link #apply} 必须由单个线程调用（写入线程或轮询线程）
+ */
+final class TopSalesCache implements AutoCloseable {
+
+    /**
+     * 一条销售记录的变更，op 为 I / U / D；删除时只有 saleId 与 salespersonId 有意义
+     * 变更了 salesperson_id 的更新按"旧记录删除 + 新记录插入"两条事件传递
+     */
+    record Change(char op, int saleId, int salespersonId, long amountCents, String customerName) {
+    }
+
+    /**
+     * 某个销售人员当前的最大销售额
+     */
+    private record Top(int saleId, long amountCents, String customerName) {
+    }
+
+    private static final String REQUERY_SQL = """
+        SELECT id, CAST(amount * 100 AS SIGNED), customer_name
+        FROM all_sales
+        WHERE salesperson_id = ?
+        ORDER BY amount DESC, id
+        LIMIT 1
+        """;
+
+    private final Connection connection;
+    private final PreparedStatement requery;
+    private final Map<Integer, String> names = new HashMap<>();
+    private final ConcurrentHashMap<Integer, Top> tops = new ConcurrentHashMap<>();
+    private long requeries;
+
+    /**
+     * @param target 指向数据集 schema，缓存自己持有一个连接用于建立与定点重查
+     */
+    TopSalesCache(JdbcTarget target, int expectedSalespersons) throws SQLException {
+        connection = target.connect();
+        requery = connection.prepareStatement(REQUERY_SQL);
+        rebuild(expectedSalespersons);
+    }
+
+    /**
+     * 全表扫描重建缓存
+     */
+    void rebuild(int expectedSalespersons) throws SQLException {
+        TopSaleMap best = new TopSaleMap(expectedSalespersons);
+        try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(ClientSideTopSales.SCAN_SQL)) {
+                ClientSideTopSales.accumulate(rs, best);
+            }
+        }
+        names.clear();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM salesperson")) {
+            while (rs.next()) {
+                names.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        tops.clear();
+        for (int slot = 0; slot < best.capacity(); slot++) {
+            if (best.occupied(slot)) {
+                tops.put(best.salespersonId(slot),
+                        new Top(best.saleId(slot), best.amountCents(slot), best.customerName(slot)));
+            }
+        }
+    }
+
+    void apply(Change change) throws SQLException {
+        Top current = tops.get(change.salespersonId());
+        switch (change.op()) {
+            case 'I' -> offer(change, current);
+            case 'U' -> {
+                if (current != null && current.saleId() == change.saleId() && change.amountCents() < current.amountCents()) {
+                    requery(change.salespersonId());
+                } else {
+                    offer(change, current);
+                }
+            }
+            case 'D' -> {
+                if (current != null && current.saleId() == change.saleId()) {
+                    requery(change.salespersonId());
+                }
+            }
+            default -> throw new IllegalArgumentException("未知的变更类型: " + change.op());
+        }
+    }
+
+    /**
+     * 金额更大，或金额相同而 id 更小，或就是当前最大值本身（金额未变小的更新）时替换
+     */
+    private void offer(Change change, Top current) {
+        if (current == null
+                || change.amountCents() > current.amountCents()
+                || (change.amountCents() == current.amountCents() && change.saleId() <= current.saleId())) {
+            tops.put(change.salespersonId(), new Top(change.saleId(), change.amountCents(), change.customerName()));
+        }
+    }
+
+    private void requery(int salespersonId) throws SQLException {
+        requeries++;
+        requery.setInt(1, salespersonId);
+        try (ResultSet rs = requery.executeQuery()) {
+            if (rs.next()) {
+                tops.put(salespersonId, new Top(rs.getInt(1), rs.getLong(2), rs.getString(3)));
+            } else {
+                tops.remove(salespersonId);
+            }
+        }
+    }
+
+    /**
+     * 当前某个销售人员最大值对应的销售记录 id，没有记录时返回 -1
+     */
+    int topSaleId(int salespersonId) {
+        Top top = tops.get(salespersonId);
+        return top == null ? -1 : top.saleId();
+    }
+
+    /**
+     * 与 LATERAL 查询同样的结果：有销售记录的销售人员各一行
+     */
+    List<ClientSideTopSales.TopSale> snapshot() {
+        List<ClientSideTopSales.TopSale> result = new ArrayList<>(tops.size());
+        tops.forEach((salespersonId, top) -> result.add(
+                new ClientSideTopSales.TopSale(names.get(salespersonId), top.amountCents(), top.customerName())));
+        return result;
+    }
+
+    /**
+     * 因删除当前最大值等原因触发的定点重查次数
+     */
+    long requeries() {
+        return requeries;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
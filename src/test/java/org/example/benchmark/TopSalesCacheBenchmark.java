@@ -0,0 +1,214 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 增量维护的 Top-1 缓存 vs 每次重新执行 LATERAL_SQL（看板每隔几秒刷新一次的场景）
+ *
+ * 整个 trial 期间后台线程以 writesPerSecond 的速率插入、改金额、删除（其中一部分专门删除当前最大值，触发定点重查），
+ * 缓存通过 changeFeed 感知变更：
+ * hook   写入方提交后直接回调缓存（应用层写入钩子）
+ * poll   触发器写入 sales_changes，后台线程每 pollIntervalMillis 轮询一次（binlog CDC 的本地替身）
+ *
+ * 滞后时间（从提交到缓存应用）与定点重查次数由 {@link CacheStalenessProfiler} 作为次要指标输出，
+ * LATERAL 一侧的滞后按每 pollIntervalMillis 刷新一次看板换算；
+ * trial 结束时还会打印整个 trial 的滞后分布，并与全量重算的结果比对，不一致则失败；
+ * 写入改变了数据，结束后丢弃该数据集
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)  // 每个参数组合在两个全新的JVM中运行（容器由 BenchmarkLauncher 在宿主JVM中启动）
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+public class TopSalesCacheBenchmark extends SalesBenchmarkBase {
+
+    @Param({"hook", "poll"})
+    private String changeFeed;
+
+    @Param({"1000"})
+    private int pollIntervalMillis;  // poll 的轮询间隔，也是 LATERAL 看板的刷新间隔
+
+    @Param({"100"})
+    private int writesPerSecond;
+
+    private TopSalesCache cache;
+    private SalesWriter writer;
+    private SalesChangeFeed feed;
+    private ScheduledExecutorService background;
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private final LatencyHistogram staleness = new LatencyHistogram();  // 只在应用变更的那个线程里记录
+    private SplittableRandom random;
+    private int maxSaleId;
+    private long writes;
+
+    @Override
+    protected void afterDataset() throws SQLException {
+        indexConfig.dropHidden(connection);  // 不可见索引也会在写入时维护
+        JdbcTarget schemaTarget = datasetTarget();
+        switch (changeFeed) {
+            case "hook" -> {
+                cache = new TopSalesCache(schemaTarget, salespersonCount);
+                writer = new SalesWriter(schemaTarget, this::applyChange);
+            }
+            case "poll" -> {
+                SalesChangeFeed.install(root.withDatabase(schema));
+                cache = new TopSalesCache(schemaTarget, salespersonCount);
+                writer = new SalesWriter(schemaTarget, null);
+                feed = new SalesChangeFeed(schemaTarget);
+            }
+            default -> throw new IllegalArgumentException("未知的 changeFeed: " + changeFeed + "，可选 hook / poll");
+        }
+        random = new SplittableRandom(seed);
+        maxSaleId = salesCount;
+
+        background = Executors.newScheduledThreadPool(2);
+        background.scheduleAtFixedRate(() -> guarded(this::writeOnce),
+                0, 1_000_000 / writesPerSecond, TimeUnit.MICROSECONDS);
+        if (feed != null) {
+            background.scheduleWithFixedDelay(() -> guarded(() -> feed.poll(this::applyChange)),
+                    pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Benchmark
+    public List<ClientSideTopSales.TopSale> cachedRead() {
+        return cache.snapshot();
+    }
+
+    @Benchmark
+    public List<ClientSideTopSales.TopSale> lateralQuery() throws SQLException {
+        List<ClientSideTopSales.TopSale> result = new ArrayList<>(salespersonCount);
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(QuickBenchmarkTest.LATERAL_SQL)) {
+            while (rs.next()) {
+                result.add(new ClientSideTopSales.TopSale(rs.getString(1),
+                        rs.getBigDecimal(2).movePointRight(2).longValueExact(), rs.getString(3)));
+            }
+        }
+        return result;
+    }
+
+    private void applyChange(TopSalesCache.Change change) throws SQLException {
+        long requeriesBefore = cache.requeries();
+        cache.apply(change);
+        long lag = writer.markApplied(change.saleId());
+        if (lag >= 0) {
+            staleness.record(lag);
+        }
+        CacheStalenessProfiler.applied(lag, cache.requeries() - requeriesBefore);
+    }
+
+    /**
+     * 随机一次写入：40% 插入，30% 改金额，15% 删除随机记录，15% 删除某个销售人员当前的最大值
+     */
+    private void writeOnce() throws SQLException {
+        int choice = random.nextInt(100);
+        if (choice < 40) {
+            int saleId = writer.insert(random.nextInt(salespersonCount) + 1, random.nextLong(1, 1_000_000),
+                    "cache-writer-" + writes);
+            maxSaleId = Math.max(maxSaleId, saleId);
+        } else if (choice < 70) {
+            writer.updateAmount(random.nextInt(maxSaleId) + 1, random.nextLong(1, 1_000_000));
+        } else if (choice < 85) {
+            writer.delete(random.nextInt(maxSaleId) + 1);
+        } else {
+            int top = cache.topSaleId(random.nextInt(salespersonCount) + 1);
+            if (top > 0) {
+                writer.delete(top);
+            }
+        }
+        writes++;
+    }
+
+    private interface SqlTask {
+        void run() throws SQLException;
+    }
+
+    /**
+     * 后台任务抛出异常后不再调度，记下异常留到 trial 结束时报告
+     */
+    private void guarded(SqlTask task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopCache() throws Exception {
+        try {
+            background.shutdown();
+            if (!background.awaitTermination(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("后台写入/轮询线程未能在 30 秒内结束");
+            }
+            if (failure.get() != null) {
+                throw new IllegalStateException("后台写入/轮询失败", failure.get());
+            }
+            if (feed != null) {
+                feed.poll(this::applyChange);
+            }
+            System.out.printf("[%s] 写入 %d 次, 定点重查 %d 次, 滞后 p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    changeFeed, writes, cache.requeries(),
+                    staleness.percentileMs(50), staleness.percentileMs(99), staleness.max() / 1_000_000.0);
+            verify();
+        } finally {
+            if (feed != null) {
+                feed.close();
+            }
+            writer.close();
+            cache.close();
+            new DatasetCache(target, root, loadMode, loadThreads).invalidate(datasetSpec());
+        }
+    }
+
+    /**
+     * 全部变更应用完之后，缓存必须与重新全量计算的结果完全一致
+     */
+    private void verify() throws SQLException {
+        Comparator<ClientSideTopSales.TopSale> order = Comparator.comparing(ClientSideTopSales.TopSale::salespersonName);
+        List<ClientSideTopSales.TopSale> expected;
+        try (Connection conn = datasetTarget().connect()) {
+            expected = new ArrayList<>(ClientSideTopSales.compute(conn, salespersonCount));
+        }
+        List<ClientSideTopSales.TopSale> actual = new ArrayList<>(cache.snapshot());
+        expected.sort(order);
+        actual.sort(order);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("缓存与全量重算结果不一致（" + changeFeed + "）: 期望 "
+                    + expected.size() + " 行, 缓存 " + actual.size() + " 行");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(TopSalesCacheBenchmark.class.getSimpleName())
+                .addProfiler(CacheStalenessProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result-top-sales-cache.json")
+                .build();
+
+        BenchmarkLauncher.run(opt);
+
+        stopContainer();
+    }
+}
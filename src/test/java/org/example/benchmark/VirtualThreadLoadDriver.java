@@ -0,0 +1,201 @@
+package org.example.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 基于虚拟线程的闭环压测驱动
+ *
+ * 每个模拟客户端运行在一个 Java 21 虚拟线程上，循环执行"取连接 -> 查询 -> 还连接"，
+ * 并发数按 1 / 16 / 256 / 1024 阶梯递增，记录每一阶的吞吐量与尾延迟，用于观察 MySQL 或驱动在哪一阶成为瓶颈
+ *
+ * 运行：mvn test-compile exec:java -Dexec.mainClass=org.example.benchmark.VirtualThreadLoadDriver
+ * 可选系统属性：
+ * bench.steps        并发阶梯，默认 1,16,256,1024
+ * bench.stepSeconds  每阶测量时长（秒），默认 10，另有 2 秒预热不计入结果
+ * bench.poolSize     连接池大小，0 表示每个客户端独占一个连接（默认 0）
+ * bench.queries      要压测的查询：lateral,window,correlated
+ */
+public class VirtualThreadLoadDriver {
+
+    static final int SALESPERSON_COUNT = Integer.getInteger("bench.salespersonCount", 500);
+    static final int SALES_COUNT = Integer.getInteger("bench.salesCount", 50_000);
+    static final int WARMUP_SECONDS = 2;
+
+    static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("lateral", QuickBenchmarkTest.LATERAL_SQL);
+        QUERIES.put("window", QuickBenchmarkTest.WINDOW_SQL);
+        QUERIES.put("correlated", QuickBenchmarkTest.CORRELATED_SUBQUERY_SQL);
+    }
+
+    /**
+     * 一阶压测的结果
+     */
+    record StepResult(String query, int clients, long operations, long errors, double seconds,
+                      double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+        double throughput() {
+            return operations / seconds;
+        }
+
+        void print() {
+            System.out.printf("%-11s %6d 客户端 | %10.1f ops/s | p50 %8.2f ms | p99 %8.2f ms | p99.9 %8.2f ms | max %8.2f ms | 错误 %d%n",
+                    query, clients, throughput(), p50Ms, p99Ms, p999Ms, maxMs, errors);
+        }
+    }
+
+    private final JdbcTarget target;
+    private final int poolSize;
+    private final int stepSeconds;
+
+    public VirtualThreadLoadDriver(JdbcTarget target, int poolSize, int stepSeconds) {
+        this.target = target;
+        this.poolSize = poolSize;
+        this.stepSeconds = stepSeconds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] steps = parseInts(System.getProperty("bench.steps", "1,16,256,1024"));
+        int stepSeconds = Integer.getInteger("bench.stepSeconds", 10);
+        int poolSize = Integer.getInteger("bench.poolSize", 0);
+        String[] queries = System.getProperty("bench.queries", String.join(",", QUERIES.keySet())).split(",");
+
+        try {
+            JdbcTarget target = BenchmarkContainer.target();
+            DatasetCache cache = new DatasetCache(target, BenchmarkContainer.rootTarget(),
+                    SalesDataLoader.LoadMode.LOAD_DATA, 4);
+            String schema = cache.acquire(new DatasetSpec(SALESPERSON_COUNT, SALES_COUNT, SalesDataGenerator.DEFAULT_SEED));
+            VirtualThreadLoadDriver driver = new VirtualThreadLoadDriver(
+                    target.withDatabase(schema), poolSize, stepSeconds);
+
+            System.out.printf("%n====== 虚拟线程闭环压测 (连接%s) ======%n",
+                    poolSize > 0 ? "池大小 " + poolSize : "每客户端独占");
+            List<StepResult> results = new ArrayList<>();
+            for (String query : queries) {
+                for (int clients : steps) {
+                    StepResult result = driver.runStep(query.trim(), QUERIES.get(query.trim()), clients);
+                    result.print();
+                    results.add(result);
+                }
+            }
+
+            System.out.println("\n====== 汇总 ======");
+            results.forEach(StepResult::print);
+        } finally {
+            BenchmarkContainer.stop();
+        }
+    }
+
+    /**
+     * 以 clients 个并发客户端运行一阶：先预热，再测量 stepSeconds 秒
+     */
+    StepResult runStep(String name, String sql, int clients) throws Exception {
+        if (sql == null) {
+            throw new IllegalArgumentException("未知的查询: " + name);
+        }
+        int connectionCount = poolSize > 0 ? Math.min(poolSize, clients) : clients;
+        BlockingQueue<Connection> pool = new ArrayBlockingQueue<>(connectionCount);
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                pool.add(target.connect());
+            }
+
+            long measureStart = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+            long measureEnd = measureStart + stepSeconds * 1_000_000_000L;
+            List<Future<ClientStats>> futures = new ArrayList<>(clients);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    futures.add(executor.submit(() -> runClient(target, sql, pool, measureStart, measureEnd)));
+                }
+            }
+
+            LatencyHistogram all = new LatencyHistogram();
+            long errors = 0;
+            for (Future<ClientStats> future : futures) {
+                ClientStats stats = future.get();
+                all.add(stats.latencies);
+                errors += stats.errors;
+            }
+            return new StepResult(name, clients, all.count(), errors, stepSeconds,
+                    all.percentileMs(50), all.percentileMs(99), all.percentileMs(99.9), all.max() / 1_000_000.0);
+        } finally {
+            for (Connection conn : pool) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * 单个客户端的闭环：上一个查询完成后立即发起下一个；延迟包含等待连接池的时间
+     */
+    private static ClientStats runClient(JdbcTarget target, String sql, BlockingQueue<Connection> pool,
+                                         long measureStart, long measureEnd) throws InterruptedException {
+        ClientStats stats = new ClientStats();
+        long now;
+        while ((now = System.nanoTime()) < measureEnd) {
+            boolean ok = true;
+            Connection conn = pool.take();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    // 只消费结果
+                }
+            } catch (SQLException e) {
+                ok = false;
+                conn = replaceIfBroken(target, conn);
+            } finally {
+                pool.put(conn);
+            }
+            if (now >= measureStart) {
+                if (ok) {
+                    stats.latencies.record(System.nanoTime() - now);
+                } else {
+                    stats.errors++;
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 查询失败后检查连接：已断开时关闭并换成新连接，否则这个槽位之后的请求都会失败、错误率被放大
+     * 重连也失败时放回原连接，下次取到时再试
+     */
+    static Connection replaceIfBroken(JdbcTarget target, Connection conn) {
+        try {
+            if (conn.isValid(1)) {
+                return conn;
+            }
+            conn.close();
+        } catch (SQLException e) {
+            // 关闭已断开的连接失败不影响替换
+        }
+        try {
+            return target.connect();
+        } catch (SQLException e) {
+            return conn;
+        }
+    }
+
+    private static final class ClientStats {
+        final LatencyHistogram latencies = new LatencyHistogram();
+        long errors;
+    }
+
+    private static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 写负载下的次要指标：写入方每秒提交数、行锁等待、InnoDB history list 长度
+ *
+ * 写入线程每提交一次调用 {@link #committed}；每轮迭代前后用 root 连接（每轮迭代打开、结束时关闭）读取
+ * Innodb_row_lock_waits / Innodb_row_lock_time 的增量，迭代结束时读取 trx_rseg_history_len
+ * （尚未 purge 的 undo 日志数，长时间运行的读事务会让它持续增长）
+ *
+ * 使用：OptionsBuilder.addProfiler(WriteLoadProfiler.class)，或命令行 -prof org.example.benchmark.WriteLoadProfiler
+ */
+public class WriteLoadProfiler implements InternalProfiler {
+
+    private static final String ROW_LOCK_SQL = """
+            SELECT VARIABLE_NAME, VARIABLE_VALUE
+            FROM performance_schema.global_status
+            WHERE VARIABLE_NAME IN ('Innodb_row_lock_waits', 'Innodb_row_lock_time')
+            """;
+
+    private static final String HISTORY_LENGTH_SQL =
+            "SELECT COUNT FROM information_schema.INNODB_METRICS WHERE NAME = 'trx_rseg_history_len'";
+
+    private static final AtomicLong COMMITS = new AtomicLong();
+
+    private Connection connection;
+    private long startNanos;
+    private long lockWaitsBefore;
+    private long lockTimeBefore;
+
+    /**
+     * 写入线程每提交一个事务调用一次
+     */
+    static void committed() {
+        COMMITS.incrementAndGet();
+    }
+
+    @Override
+    public String getDescription() {
+        return "写负载：写入吞吐量、行锁等待、InnoDB history list 长度";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        try {
+            connection = BenchmarkContainer.rootTarget().connect();
+            long[] rowLocks = rowLocks();
+            lockWaitsBefore = rowLocks[0];
+            lockTimeBefore = rowLocks[1];
+        } catch (SQLException e) {
+            if (connection != null) {
+                closeConnection();
+            }
+            throw new IllegalStateException("读取 InnoDB 状态失败", e);
+        }
+        COMMITS.set(0);
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * 每轮迭代输出一次；多轮迭代之间按 AVG 汇总，history list 长度取 MAX
+     */
+    @Override
+    public List<? extends Result<?>> afterIteration(BenchmarkParams benchmarkParams,
+                                                    IterationParams iterationParams,
+                                                    IterationResult result) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long commits = COMMITS.get();
+        try {
+            long[] rowLocks = rowLocks();
+            return List.of(
+                    new ScalarResult("·writes.throughput", commits / seconds, "commits/s", AggregationPolicy.AVG),
+                    new ScalarResult("·innodb.rowLockWaits", rowLocks[0] - lockWaitsBefore, "waits", AggregationPolicy.AVG),
+                    new ScalarResult("·innodb.rowLockTime", rowLocks[1] - lockTimeBefore, "ms", AggregationPolicy.AVG),
+                    new ScalarResult("·innodb.historyListLength", historyLength(), "undo logs", AggregationPolicy.MAX));
+        } catch (SQLException e) {
+            throw new IllegalStateException("读取 InnoDB 状态失败", e);
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // 只读统计用的连接，关闭失败不影响结果
+        }
+        connection = null;
+    }
+
+    /**
+     * @return {Innodb_row_lock_waits, Innodb_row_lock_time（毫秒）}
+     */
+    private long[] rowLocks() throws SQLException {
+        long[] values = new long[2];
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(ROW_LOCK_SQL)) {
+            while (rs.next()) {
+                int index = rs.getString(1).equals("Innodb_row_lock_waits") ? 0 : 1;
+                values[index] = rs.getLong(2);
+            }
+        }
+        return values;
+    }
+
+    private long historyLength() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(HISTORY_LENGTH_SQL)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}